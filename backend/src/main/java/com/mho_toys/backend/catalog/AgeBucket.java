@@ -0,0 +1,56 @@
+package com.mho_toys.backend.catalog;
+
+/**
+ * Storefront age facets. Bounds are inclusive and expressed in months;
+ * a product is counted in every bucket its age range overlaps.
+ */
+public enum AgeBucket {
+
+    INFANT("Under 1 Year", 0, 11),
+    TODDLER("1-2 Years", 12, 35),
+    PRESCHOOL("3-5 Years", 36, 71),
+    SCHOOL_AGE("6-8 Years", 72, 107),
+    TWEEN("9-12 Years", 108, 155),
+    TEEN("13+ Years", 156, Integer.MAX_VALUE);
+
+    private final String label;
+    private final int minMonths;
+    private final int maxMonths;
+
+    AgeBucket(String label, int minMonths, int maxMonths) {
+        this.label = label;
+        this.minMonths = minMonths;
+        this.maxMonths = maxMonths;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getMinMonths() {
+        return minMonths;
+    }
+
+    public int getMaxMonths() {
+        return maxMonths;
+    }
+
+    public boolean overlaps(Integer productMinMonths, Integer productMaxMonths) {
+        if (productMinMonths == null) {
+            return false;
+        }
+        return productMinMonths <= maxMonths
+                && (productMaxMonths == null || productMaxMonths >= minMonths);
+    }
+
+    public static AgeBucket fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return AgeBucket.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported age bucket: " + value);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.mho_toys.backend.catalog;
+
+/**
+ * Storefront price facets: minimum inclusive, maximum exclusive.
+ */
+public enum PriceBand {
+
+    UNDER_10("Under 10", 0.0, 10.0),
+    FROM_10_TO_25("10 - 25", 10.0, 25.0),
+    FROM_25_TO_50("25 - 50", 25.0, 50.0),
+    FROM_50_TO_100("50 - 100", 50.0, 100.0),
+    OVER_100("100 and above", 100.0, Double.MAX_VALUE);
+
+    private final String label;
+    private final double minPrice;
+    private final double maxPrice;
+
+    PriceBand(String label, double minPrice, double maxPrice) {
+        this.label = label;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double getMinPrice() {
+        return minPrice;
+    }
+
+    public double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public static PriceBand of(Double price) {
+        if (price == null) {
+            return null;
+        }
+        for (PriceBand band : values()) {
+            if (price >= band.minPrice && price < band.maxPrice) {
+                return band;
+            }
+        }
+        return price < 0 ? null : OVER_100;
+    }
+
+    public static PriceBand fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return PriceBand.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported price band: " + value);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mho_toys.backend.catalog;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.mapper.ProductMapper;
+import com.mho_toys.backend.repository.ProductRepository;
+import com.mho_toys.backend.storage.ImageVariantsGeneratedEvent;
+
+/**
+ * Immutable snapshot of the whole product catalog.
+ *
+ * Reads are served from memory; the snapshot is rebuilt once a product write
+ * has committed, so the public product list never waits on the database.
+ * The JSON body is encoded once per rebuild rather than once per request.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogCache.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Bumped on every committed write; a snapshot is only current if it was built at the latest version
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public List<ProductDTO> getProducts() {
+        return getSnapshot().getProducts();
+    }
+
+    public ProductCatalogSnapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == version.get()) {
+            return current.catalog;
+        }
+        return rebuild();
+    }
+
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        logger.debug("Catalog changed ({} product {}), rebuilding snapshot",
+                event.getChangeType(), event.getProduct().getProductId());
+        invalidate();
+        rebuild();
+    }
+
+    // Variants finish in the background; the next read rebuilds with their URLs
+    @EventListener
+    public void onImageVariantsGenerated(ImageVariantsGeneratedEvent event) {
+        invalidate();
+    }
+
+    private synchronized ProductCatalogSnapshot rebuild() {
+        long buildVersion = version.get();
+        Snapshot current = snapshot;
+        if (current != null && current.version == buildVersion) {
+            return current.catalog;
+        }
+
+        List<ProductDTO> products = productRepository.findAll().stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toUnmodifiableList());
+
+        byte[] json = encode(products);
+        ProductCatalogSnapshot catalog = new ProductCatalogSnapshot(products, json, strongETag(json));
+
+        // A write that commits while we load bumps the version, so this snapshot is simply rebuilt again on next read
+        snapshot = new Snapshot(buildVersion, catalog);
+        logger.info("Product catalog snapshot rebuilt with {} products ({} bytes)", products.size(), json.length);
+        return catalog;
+    }
+
+    private byte[] encode(List<ProductDTO> products) {
+        try {
+            return objectMapper.writeValueAsBytes(products);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product catalog", e);
+        }
+    }
+
+    private static String strongETag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Snapshot(long version, ProductCatalogSnapshot catalog) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.mho_toys.backend.catalog;
+
+import com.mho_toys.backend.dto.ProductDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the product service whenever a write changes the catalog.
+ * Listeners receive it after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCatalogChangedEvent {
+
+    public enum ChangeType {
+        ADDED,
+        UPDATED,
+        DELETED
+    }
+
+    private final ChangeType changeType;
+
+    // State of the product after the change (last known state for DELETED)
+    private final ProductDTO product;
+}
@@ -0,0 +1,55 @@
+package com.mho_toys.backend.catalog;
+
+import java.util.List;
+
+import com.mho_toys.backend.dto.ProductDTO;
+
+/**
+ * One immutable build of the product catalog: the DTOs, their pre-encoded
+ * UTF-8 JSON body and a strong ETag derived from that body.
+ */
+public final class ProductCatalogSnapshot {
+
+    private final List<ProductDTO> products;
+    private final byte[] json;
+    private final String etag;
+
+    ProductCatalogSnapshot(List<ProductDTO> products, byte[] json, String etag) {
+        this.products = products;
+        this.json = json;
+        this.etag = etag;
+    }
+
+    public List<ProductDTO> getProducts() {
+        return products;
+    }
+
+    // Shared buffer, callers must not modify it
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public boolean matchesETag(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            // If-None-Match uses weak comparison, so W/"x" matches "x"
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
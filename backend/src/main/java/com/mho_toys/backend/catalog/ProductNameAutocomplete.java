@@ -0,0 +1,154 @@
+package com.mho_toys.backend.catalog;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.dto.ProductSuggestionDTO;
+
+/**
+ * Typeahead over product names, backed by a sorted array searched with
+ * binary search.
+ *
+ * Every name is indexed once per word start ("wooden train set" is found by
+ * "woo", "tra" and "set"). The arrays are immutable and swapped in whole on
+ * rebuild, so lookups take no locks and allocate little more than the result.
+ */
+@Component
+public class ProductNameAutocomplete {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductNameAutocomplete.class);
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    // Source of truth for rebuilds; only touched under the monitor
+    private final Map<Long, ProductSuggestionDTO> names = new HashMap<>();
+
+    private volatile SuggestionIndex index = SuggestionIndex.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void buildIndex() {
+        names.clear();
+        for (ProductDTO product : catalogCache.getProducts()) {
+            names.put(product.getProductId(), new ProductSuggestionDTO(product.getProductId(), product.getName()));
+        }
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCatalogChanged(ProductCatalogChangedEvent event) {
+        ProductDTO product = event.getProduct();
+        if (event.getChangeType() == ProductCatalogChangedEvent.ChangeType.DELETED) {
+            if (names.remove(product.getProductId()) != null) {
+                rebuild();
+            }
+            return;
+        }
+
+        ProductSuggestionDTO current = names.get(product.getProductId());
+        if (current != null && Objects.equals(current.getName(), product.getName())) {
+            // Price/description edits don't affect suggestions
+            return;
+        }
+        names.put(product.getProductId(), new ProductSuggestionDTO(product.getProductId(), product.getName()));
+        rebuild();
+    }
+
+    public List<ProductSuggestionDTO> suggest(String prefix, int limit) {
+        String folded = fold(prefix);
+        if (folded.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        SuggestionIndex current = index;
+        String[] keys = current.keys;
+        int from = Arrays.binarySearch(keys, folded);
+        if (from < 0) {
+            from = -from - 1;
+        }
+        // Every key with the prefix sorts below prefix + U+FFFF, so the end of the range is a second binary search
+        int to = Arrays.binarySearch(keys, from, keys.length, folded + Character.MAX_VALUE);
+        if (to < 0) {
+            to = -to - 1;
+        }
+
+        List<ProductSuggestionDTO> results = new ArrayList<>(Math.min(limit, to - from));
+        // Names that start with the prefix rank ahead of names where a later word matches
+        collect(current, from, to, true, limit, results);
+        collect(current, from, to, false, limit, results);
+        return results;
+    }
+
+    private static void collect(SuggestionIndex current, int from, int to, boolean wholeName,
+                                int limit, List<ProductSuggestionDTO> results) {
+        for (int i = from; i < to && results.size() < limit; i++) {
+            if (current.wholeName[i] != wholeName) {
+                continue;
+            }
+            ProductSuggestionDTO suggestion = current.suggestions[i];
+            if (!results.contains(suggestion)) {
+                results.add(suggestion);
+            }
+        }
+    }
+
+    private void rebuild() {
+        List<Entry> entries = new ArrayList<>();
+        for (ProductSuggestionDTO suggestion : names.values()) {
+            List<String> tokens = ProductSearchIndex.tokenize(suggestion.getName());
+            for (int start = 0; start < tokens.size(); start++) {
+                String key = String.join(" ", tokens.subList(start, tokens.size()));
+                entries.add(new Entry(key, start == 0, suggestion));
+            }
+        }
+        entries.sort((a, b) -> a.key.compareTo(b.key));
+
+        String[] keys = new String[entries.size()];
+        boolean[] wholeName = new boolean[entries.size()];
+        ProductSuggestionDTO[] suggestions = new ProductSuggestionDTO[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            keys[i] = entry.key;
+            wholeName[i] = entry.wholeName;
+            suggestions[i] = entry.suggestion;
+        }
+        index = new SuggestionIndex(keys, wholeName, suggestions);
+        logger.debug("Autocomplete index rebuilt with {} keys for {} products", keys.length, names.size());
+    }
+
+    private static String fold(String text) {
+        return String.join(" ", ProductSearchIndex.tokenize(text));
+    }
+
+    private record Entry(String key, boolean wholeName, ProductSuggestionDTO suggestion) {
+    }
+
+    private static final class SuggestionIndex {
+
+        static final SuggestionIndex EMPTY =
+                new SuggestionIndex(new String[0], new boolean[0], new ProductSuggestionDTO[0]);
+
+        final String[] keys;
+        final boolean[] wholeName;
+        final ProductSuggestionDTO[] suggestions;
+
+        SuggestionIndex(String[] keys, boolean[] wholeName, ProductSuggestionDTO[] suggestions) {
+            this.keys = keys;
+            this.wholeName = wholeName;
+            this.suggestions = suggestions;
+        }
+    }
+}
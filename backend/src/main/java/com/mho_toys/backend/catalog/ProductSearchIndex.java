@@ -0,0 +1,221 @@
+package com.mho_toys.backend.catalog;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.storage.ImageVariantGenerator;
+import com.mho_toys.backend.storage.ImageVariantsGeneratedEvent;
+
+/**
+ * In-process inverted index over product name and description.
+ *
+ * Terms are kept in a sorted map so prefix queries are a range scan. The
+ * index is built once at startup and then updated per product from catalog
+ * change events, so searches never touch the database.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double PREFIX_MATCH_FACTOR = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (productId -> weighted term frequency)
+    private final TreeMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private final Map<Long, ProductDTO> documents = new HashMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        List<ProductDTO> products = catalogCache.getProducts();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            documentTerms.clear();
+            products.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Product search index built with {} products and {} terms", products.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        ProductDTO product = event.getProduct();
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getProductId());
+            if (event.getChangeType() != ProductCatalogChangedEvent.ChangeType.DELETED) {
+                // The event was mapped before commit; variants generated since then are picked up here
+                addDocument(withCurrentVariants(product));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Variants finish after the change event was indexed; refresh only the products showing that image
+    @EventListener
+    public void onImageVariantsGenerated(ImageVariantsGeneratedEvent event) {
+        String suffix = "/" + event.fileName();
+        lock.writeLock().lock();
+        try {
+            documents.replaceAll((productId, product) -> product.getImageUrl() != null && product.getImageUrl().endsWith(suffix)
+                    ? withCurrentVariants(product)
+                    : product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private ProductDTO withCurrentVariants(ProductDTO product) {
+        return new ProductDTO(product.getProductId(), product.getName(), product.getDescription(), product.getPrice(),
+                product.getAgeRange(), product.getImageUrl(), imageVariantGenerator.variantUrls(product.getImageUrl()));
+    }
+
+    /**
+     * Ranked search. Every query token must match a term in the product,
+     * either exactly or as a prefix; exact matches and matches in the name
+     * score higher, and rare terms weigh more than common ones.
+     */
+    public List<ProductDTO> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    // AND semantics: keep only products that matched every token so far
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> documents.get(entry.getKey()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token) {
+        Map<Long, Double> scores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Double>> term
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            boolean exact = term.getKey().equals(token);
+            // The exact term sorts first in the range, so past the cap nothing left can be exact
+            if (!exact && ++expansions > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            Map<Long, Double> termPostings = term.getValue();
+            double idf = Math.log(1.0 + (double) documents.size() / termPostings.size());
+            double factor = exact ? 1.0 : PREFIX_MATCH_FACTOR;
+            for (Map.Entry<Long, Double> posting : termPostings.entrySet()) {
+                // A product matching the token through several terms keeps its best match
+                scores.merge(posting.getKey(), posting.getValue() * idf * factor, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void addDocument(ProductDTO product) {
+        Long productId = product.getProductId();
+        Map<String, Double> termWeights = new HashMap<>();
+        for (String token : tokenize(product.getName())) {
+            termWeights.merge(token, NAME_WEIGHT, Double::sum);
+        }
+        for (String token : tokenize(product.getDescription())) {
+            termWeights.merge(token, DESCRIPTION_WEIGHT, Double::sum);
+        }
+
+        termWeights.forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(productId, weight));
+        documents.put(productId, product);
+        documentTerms.put(productId, termWeights.keySet());
+    }
+
+    private void removeDocument(Long productId) {
+        Set<String> terms = documentTerms.remove(productId);
+        documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Double> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(productId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -29,6 +29,7 @@ import com.mho_toys.backend.dto.UserDTO;
 import com.mho_toys.backend.model.User;
 import com.mho_toys.backend.security.response.MessageResponse;
 import com.mho_toys.backend.service.UserService;
+import com.mho_toys.backend.utils.ClientIpResolver;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -76,7 +77,7 @@ public class AdminController {
                                                          @AuthenticationPrincipal UserDetails adminUser,
                                                          HttpServletRequest request) {
         logger.info("Admin {} updating role for user {} to {} from IP: {}", 
-                   adminUser.getUsername(), userId, roleName, getClientIpAddress(request));
+                   adminUser.getUsername(), userId, roleName, ClientIpResolver.resolve(request));
         
         try {
             userService.updateUserRole(userId, roleName);
@@ -100,7 +101,7 @@ public class AdminController {
                                                      @AuthenticationPrincipal UserDetails adminUser,
                                                      HttpServletRequest request) {
         logger.info("Admin {} enabling user {} from IP: {}", 
-                   adminUser.getUsername(), userId, getClientIpAddress(request));
+                   adminUser.getUsername(), userId, ClientIpResolver.resolve(request));
         
         try {
             userService.enableUser(userId);
@@ -122,7 +123,7 @@ public class AdminController {
                                                       @AuthenticationPrincipal UserDetails adminUser,
                                                       HttpServletRequest request) {
         logger.warn("Admin {} disabling user {} from IP: {}", 
-                   adminUser.getUsername(), userId, getClientIpAddress(request));
+                   adminUser.getUsername(), userId, ClientIpResolver.resolve(request));
         
         try {
             userService.disableUser(userId);
@@ -144,7 +145,7 @@ public class AdminController {
                                                    @AuthenticationPrincipal UserDetails adminUser,
                                                    HttpServletRequest request) {
         logger.warn("Admin {} locking user {} from IP: {}", 
-                   adminUser.getUsername(), userId, getClientIpAddress(request));
+                   adminUser.getUsername(), userId, ClientIpResolver.resolve(request));
         
         try {
             userService.lockAccount(userId);
@@ -166,7 +167,7 @@ public class AdminController {
                                                      @AuthenticationPrincipal UserDetails adminUser,
                                                      HttpServletRequest request) {
         logger.info("Admin {} unlocking user {} from IP: {}", 
-                   adminUser.getUsername(), userId, getClientIpAddress(request));
+                   adminUser.getUsername(), userId, ClientIpResolver.resolve(request));
         
         try {
             userService.unlockAccount(userId);
@@ -188,7 +189,7 @@ public class AdminController {
                                                      @AuthenticationPrincipal UserDetails adminUser,
                                                      HttpServletRequest request) {
         logger.warn("Admin {} attempting to delete user {} from IP: {}", 
-                   adminUser.getUsername(), userId, getClientIpAddress(request));
+                   adminUser.getUsername(), userId, ClientIpResolver.resolve(request));
         
         try {
             // Prevent admin from deleting themselves
@@ -275,7 +276,7 @@ public class AdminController {
     public ResponseEntity<MessageResponse> resetAllFailedAttempts(@AuthenticationPrincipal UserDetails adminUser,
                                                                  HttpServletRequest request) {
         logger.warn("Admin {} resetting all failed login attempts from IP: {}", 
-                   adminUser.getUsername(), getClientIpAddress(request));
+                   adminUser.getUsername(), ClientIpResolver.resolve(request));
         
         try {
             userService.resetAllFailedLoginAttempts();
@@ -296,7 +297,7 @@ public class AdminController {
     public ResponseEntity<MessageResponse> unlockAllAccounts(@AuthenticationPrincipal UserDetails adminUser,
                                                             HttpServletRequest request) {
         logger.warn("Admin {} unlocking all accounts from IP: {}", 
-                   adminUser.getUsername(), getClientIpAddress(request));
+                   adminUser.getUsername(), ClientIpResolver.resolve(request));
         
         try {
             userService.unlockAllAccounts();
@@ -331,13 +332,4 @@ public class AdminController {
             return ResponseEntity.badRequest().build();
         }
     }
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedForHeader = request.getHeader("X-Forwarded-For");
-        if (xForwardedForHeader == null || xForwardedForHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        } else {
-            return xForwardedForHeader.split(",")[0].trim();
-        }
-    }
 } 
\ No newline at end of file
@@ -1,17 +1,21 @@
 package com.mho_toys.backend.controller;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -24,6 +28,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -32,11 +37,14 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.mho_toys.backend.exceptions.ServiceOverloadedException;
 import com.mho_toys.backend.model.ApplicationRole;
 import com.mho_toys.backend.model.Role;
 import com.mho_toys.backend.model.User;
 import com.mho_toys.backend.repository.RoleRepository;
 import com.mho_toys.backend.repository.UserRepository;
+import com.mho_toys.backend.security.AuthRateLimiter;
+import com.mho_toys.backend.security.jwt.JwtTokenClaims;
 import com.mho_toys.backend.security.jwt.JwtUtils;
 
 import jakarta.servlet.http.Cookie;
@@ -47,7 +55,11 @@ import com.mho_toys.backend.security.request.SignupRequest;
 import com.mho_toys.backend.security.response.LoginResponse;
 import com.mho_toys.backend.security.response.MessageResponse;
 import com.mho_toys.backend.security.response.UserInfoResponse;
+import com.mho_toys.backend.security.service.RefreshTokenService;
+import com.mho_toys.backend.security.service.TokenRevocationService;
+import com.mho_toys.backend.security.service.UserDetailsImpl;
 import com.mho_toys.backend.service.UserService;
+import com.mho_toys.backend.utils.ClientIpResolver;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -61,6 +73,10 @@ public class AuthController {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthController.class);
 
+    private static final String REFRESH_TOKEN_COOKIE_NAME = "refreshToken";
+    // Only sent to the refresh and logout endpoints
+    private static final String REFRESH_TOKEN_COOKIE_PATH = "/api/auth";
+
     @Autowired
     private JwtUtils jwtUtils;
 
@@ -78,6 +94,15 @@ public class AuthController {
 
     @Autowired
     private UserService userService;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
     
     @Autowired
     private com.mho_toys.backend.security.service.UserDetailsServiceImpl userDetailsService;
@@ -86,7 +111,20 @@ public class AuthController {
     public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
                                              HttpServletRequest request) {
         logger.info("Login attempt for user: {} from IP: {}", 
-                   loginRequest.getUsername(), getClientIpAddress(request));
+                   loginRequest.getUsername(), ClientIpResolver.resolve(request));
+
+        // Per-account budget, so a botnet spreading attempts across IPs still cannot hammer one user
+        if (!authRateLimiter.tryAcquireForUsername(loginRequest.getUsername())) {
+            logger.warn("Sign-in rate limit exceeded for user: {}", loginRequest.getUsername());
+
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Too many sign-in attempts, please try again later");
+            errorResponse.put("status", false);
+            errorResponse.put("timestamp", Instant.now().toString());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(authRateLimiter.getUsernameRetryAfterSeconds(loginRequest.getUsername())))
+                    .body(errorResponse);
+        }
 
         Authentication authentication;
         try {
@@ -97,13 +135,12 @@ public class AuthController {
                     )
             );
 
-            // Update last login and reset failed attempts on successful authentication
-            userService.updateLastLogin(loginRequest.getUsername());
-            userService.resetFailedLoginAttempts(loginRequest.getUsername());
+            // Update last login and reset failed attempts on successful authentication (written behind in batches)
+            userService.recordSuccessfulLogin(loginRequest.getUsername());
 
         } catch (BadCredentialsException e) {
             logger.warn("Bad credentials for user: {} from IP: {}", 
-                       loginRequest.getUsername(), getClientIpAddress(request));
+                       loginRequest.getUsername(), ClientIpResolver.resolve(request));
             
             // Increment failed login attempts
             userService.incrementFailedLoginAttempts(loginRequest.getUsername());
@@ -116,7 +153,7 @@ public class AuthController {
             
         } catch (LockedException e) {
             logger.warn("Account locked for user: {} from IP: {}", 
-                       loginRequest.getUsername(), getClientIpAddress(request));
+                       loginRequest.getUsername(), ClientIpResolver.resolve(request));
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Account is locked due to multiple failed login attempts");
@@ -126,7 +163,7 @@ public class AuthController {
             
         } catch (DisabledException e) {
             logger.warn("Disabled account access attempt for user: {} from IP: {}", 
-                       loginRequest.getUsername(), getClientIpAddress(request));
+                       loginRequest.getUsername(), ClientIpResolver.resolve(request));
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Account is disabled");
@@ -136,7 +173,7 @@ public class AuthController {
             
         } catch (AuthenticationException e) {
             logger.error("Authentication error for user: {} from IP: {} - {}", 
-                        loginRequest.getUsername(), getClientIpAddress(request), e.getMessage());
+                        loginRequest.getUsername(), ClientIpResolver.resolve(request), e.getMessage());
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("message", "Authentication failed");
@@ -148,18 +185,9 @@ public class AuthController {
         SecurityContextHolder.getContext().setAuthentication(authentication);
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
-        // Generate JWT token with appropriate expiration
-        String jwtToken;
-        Instant expiresAt;
-        
-        if (loginRequest.isRememberMe()) {
-            // Extended expiration for "remember me"
-            jwtToken = jwtUtils.generateTokenWithCustomExpiration(userDetails, 7 * 24 * 60 * 60 * 1000L); // 7 days
-            expiresAt = Instant.now().plusSeconds(7 * 24 * 60 * 60);
-        } else {
-            jwtToken = jwtUtils.generateTokenFromUsername(userDetails);
-            expiresAt = Instant.now().plusSeconds(24 * 60 * 60); // 24 hours default
-        }
+        // Short-lived access token; "remember me" only lengthens the refresh token session
+        String jwtToken = jwtUtils.generateTokenFromUsername(userDetails);
+        Instant expiresAt = Instant.now().plusMillis(jwtUtils.getJwtExpirationMs());
 
         // Collect roles from UserDetails
         List<String> roles = userDetails.getAuthorities().stream()
@@ -192,17 +220,67 @@ public class AuthController {
                 expiresAt
         );
 
+        RefreshTokenService.IssuedToken refreshToken =
+                refreshTokenService.issue((UserDetailsImpl) userDetails, loginRequest.isRememberMe());
+
         logger.info("Successful login for user: {} from IP: {}", 
-                   userDetails.getUsername(), getClientIpAddress(request));
+                   userDetails.getUsername(), ClientIpResolver.resolve(request));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshTokenCookie(refreshToken).toString())
+                .body(response);
+    }
+
+    /**
+     * Exchanges the refresh token cookie for a new access token and a new
+     * refresh token. A refresh token works once; replaying one ends the
+     * session it belongs to.
+     */
+    @PostMapping("/public/refresh")
+    public ResponseEntity<?> refreshAccessToken(
+            @CookieValue(name = REFRESH_TOKEN_COOKIE_NAME, required = false) String refreshToken) {
+        Optional<RefreshTokenService.Rotation> rotation = refreshToken != null
+                ? refreshTokenService.rotate(refreshToken)
+                : Optional.empty();
+
+        if (rotation.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("message", "Session expired, please sign in again");
+            errorResponse.put("status", false);
+            errorResponse.put("timestamp", Instant.now().toString());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.SET_COOKIE, clearedRefreshTokenCookie().toString())
+                    .body(errorResponse);
+        }
+
+        UserDetailsImpl principal = rotation.get().principal();
+        String jwtToken = jwtUtils.generateTokenFromUsername(principal);
+        Instant expiresAt = Instant.now().plusMillis(jwtUtils.getJwtExpirationMs());
+
+        // The browser client authenticates with the jwtToken cookie, so refresh it alongside the body
+        ResponseCookie accessCookie = ResponseCookie.from(JwtUtils.AUTH_COOKIE_NAME, jwtToken)
+                .httpOnly(true)
+                .path("/")
+                .maxAge(Duration.ofMillis(jwtUtils.getJwtExpirationMs()))
+                .sameSite("Strict")
+                .build();
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("jwtToken", jwtToken);
+        body.put("tokenType", "Bearer");
+        body.put("expiresAt", expiresAt);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, accessCookie.toString())
+                .header(HttpHeaders.SET_COOKIE, refreshTokenCookie(rotation.get().refreshToken()).toString())
+                .body(body);
     }
 
     @PostMapping("/public/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest,
                                          HttpServletRequest request) {
         logger.info("Registration attempt for username: {} email: {} from IP: {}", 
-                   signUpRequest.getUsername(), signUpRequest.getEmail(), getClientIpAddress(request));
+                   signUpRequest.getUsername(), signUpRequest.getEmail(), ClientIpResolver.resolve(request));
 
         // Validate username availability
         if (userRepository.existsByUserName(signUpRequest.getUsername())) {
@@ -239,7 +317,7 @@ public class AuthController {
                 role = roleRepository.findByRoleName(ApplicationRole.ROLE_ADMIN)
                         .orElseThrow(() -> new RuntimeException("Error: Admin role not found."));
                 logger.warn("Admin role assignment for user: {} from IP: {}", 
-                           signUpRequest.getUsername(), getClientIpAddress(request));
+                           signUpRequest.getUsername(), ClientIpResolver.resolve(request));
             } else {
                 role = roleRepository.findByRoleName(ApplicationRole.ROLE_USER)
                         .orElseThrow(() -> new RuntimeException("Error: User role not found."));
@@ -262,7 +340,7 @@ public class AuthController {
         User savedUser = userRepository.save(user);
 
         logger.info("User registered successfully: {} with role: {} from IP: {}", 
-                   savedUser.getUserName(), role.getRoleName(), getClientIpAddress(request));
+                   savedUser.getUserName(), role.getRoleName(), ClientIpResolver.resolve(request));
 
         return ResponseEntity.ok(MessageResponse.success("User registered successfully!"));
     }
@@ -324,6 +402,9 @@ public class AuthController {
             
             logger.info("Password changed for user: {}", userDetails.getUsername());
             return ResponseEntity.ok(MessageResponse.success("Password changed successfully"));
+        } catch (ServiceOverloadedException e) {
+            // Let the global handler answer 503 with Retry-After
+            throw e;
         } catch (Exception e) {
             logger.error("Password change failed for user: {} - {}", userDetails.getUsername(), e.getMessage());
             return ResponseEntity.badRequest()
@@ -364,10 +445,24 @@ public class AuthController {
 
     @PostMapping("/logout")
     public ResponseEntity<MessageResponse> secureLogout(HttpServletRequest request, 
-                                                      HttpServletResponse response) {
+                                                      HttpServletResponse response,
+                                                      @CookieValue(name = REFRESH_TOKEN_COOKIE_NAME, required = false) String refreshToken) {
         try {
+            // Revoke the presented token server-side so a copy of it stops working too
+            String jwt = jwtUtils.getJwtFromRequest(request);
+            JwtTokenClaims claims = jwt != null ? jwtUtils.parseValidToken(jwt) : null;
+            if (claims != null) {
+                tokenRevocationService.revoke(claims);
+            }
+
+            // End the refresh token session as well
+            if (refreshToken != null) {
+                refreshTokenService.revoke(refreshToken);
+            }
+            response.addHeader(HttpHeaders.SET_COOKIE, clearedRefreshTokenCookie().toString());
+
             // Clear the JWT cookie
-            Cookie jwtCookie = new Cookie("jwt", "");
+            Cookie jwtCookie = new Cookie(JwtUtils.AUTH_COOKIE_NAME, "");
             jwtCookie.setHttpOnly(true);
             jwtCookie.setPath("/");
             jwtCookie.setMaxAge(0); // Expire immediately
@@ -443,7 +538,7 @@ public class AuthController {
             }
 
             // Create httpOnly cookie for the JWT token
-            Cookie jwtCookie = new Cookie("jwtToken", token);
+            Cookie jwtCookie = new Cookie(JwtUtils.AUTH_COOKIE_NAME, token);
             jwtCookie.setHttpOnly(true);
             jwtCookie.setSecure(false); // Set to true in production with HTTPS
             jwtCookie.setPath("/");
@@ -460,12 +555,21 @@ public class AuthController {
         }
     }
 
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedForHeader = request.getHeader("X-Forwarded-For");
-        if (xForwardedForHeader == null || xForwardedForHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        } else {
-            return xForwardedForHeader.split(",")[0].trim();
-        }
+    private ResponseCookie refreshTokenCookie(RefreshTokenService.IssuedToken refreshToken) {
+        return ResponseCookie.from(REFRESH_TOKEN_COOKIE_NAME, refreshToken.token())
+                .httpOnly(true)
+                .path(REFRESH_TOKEN_COOKIE_PATH)
+                .maxAge(Duration.between(Instant.now(), refreshToken.expiresAt()))
+                .sameSite("Strict")
+                .build();
+    }
+
+    private ResponseCookie clearedRefreshTokenCookie() {
+        return ResponseCookie.from(REFRESH_TOKEN_COOKIE_NAME, "")
+                .httpOnly(true)
+                .path(REFRESH_TOKEN_COOKIE_PATH)
+                .maxAge(0)
+                .sameSite("Strict")
+                .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+package com.mho_toys.backend.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves stored product images.
+ *
+ * Files named by content digest (and their width variants) can never change,
+ * so they are sent with a one-year immutable Cache-Control and a strong ETag
+ * taken from the name; older random-named files get a short max-age and an
+ * ETag from size and modification time. Conditional requests are answered
+ * with 304 and a single byte range with 206.
+ *
+ * The body is handed to Tomcat's sendfile support when the connector offers
+ * it, so the kernel copies file pages straight to the socket. That is the
+ * only zero-copy path: small bodies and connectors without sendfile get an
+ * ordinary buffered copy through the servlet output stream.
+ */
+@RestController
+public class ImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageController.class);
+
+    // Request attributes understood by Tomcat's NIO connectors (org.apache.tomcat.util.Globals)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    // Below this a plain write is cheaper than setting up sendfile; same threshold as Tomcat's DefaultServlet
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    // Only image names the upload path can produce; also rules out traversal and in-progress temp files
+    private static final Pattern IMAGE_NAME = Pattern.compile("^[A-Za-z0-9_-]+\\.(jpg|jpeg|png|gif|webp)$",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("^([0-9a-f]{64})(-w\\d+)?\\.[a-z]+$");
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "png", "image/png",
+            "gif", "image/gif",
+            "webp", "image/webp");
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final CacheControl MUTABLE = CacheControl.maxAge(Duration.ofHours(1)).cachePublic();
+
+    @Value("${project.image}")
+    private String path;
+
+    @GetMapping("/images/{fileName:.+}")
+    public void getImage(@PathVariable String fileName,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        Matcher name = IMAGE_NAME.matcher(fileName);
+        if (!name.matches()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        Path file = Paths.get(path).resolve(fileName);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        if (!attributes.isRegularFile()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Matcher digest = CONTENT_ADDRESSED.matcher(fileName);
+        boolean immutable = digest.matches();
+        String etag = immutable
+                ? "\"" + digest.group(1) + (digest.group(2) != null ? digest.group(2) : "") + "\""
+                : "W/\"" + length + "-" + lastModified + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, (immutable ? IMMUTABLE : MUTABLE).getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Sets ETag and Last-Modified, and the 304 status when the client's copy is current
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(CONTENT_TYPES.get(name.group(1).toLowerCase()));
+
+        long start = 0;
+        long end = length - 1;
+        HttpRange range = requestedRange(request, etag, lastModified);
+        if (range != null) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // Tomcat streams the file itself once this method returns; end is exclusive
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+        transfer(file, start, count, response);
+    }
+
+    /**
+     * The single range to serve, or null for the whole file. Multiple ranges
+     * and malformed headers fall back to a full response, as does a Range
+     * whose If-Range no longer matches the file.
+     */
+    private HttpRange requestedRange(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                // If-Range needs a strong match; a weak ETag can never validate a partial response
+                if (!ifRange.equals(etag) || etag.startsWith("W/")) {
+                    return null;
+                }
+            } else {
+                try {
+                    long ifRangeDate = request.getDateHeader(HttpHeaders.IF_RANGE);
+                    if (ifRangeDate == -1 || ifRangeDate / 1000 != lastModified / 1000) {
+                        return null;
+                    }
+                } catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Buffered copy; the servlet output stream is not a channel the kernel can send to directly
+    private void transfer(Path file, long start, long count, HttpServletResponse response) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            long copied = StreamUtils.copyRange(in, response.getOutputStream(), start, start + count - 1);
+            if (copied < count) {
+                // File shrank underneath us; the declared length can no longer be honoured
+                logger.warn("Image {} ended early while serving", file.getFileName());
+            }
+        }
+    }
+}
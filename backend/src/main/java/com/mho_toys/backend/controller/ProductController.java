@@ -4,11 +4,13 @@ import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -20,15 +22,22 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.mho_toys.backend.catalog.ProductCatalogSnapshot;
 import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.dto.ProductFilterResultDTO;
+import com.mho_toys.backend.dto.ProductPageDTO;
+import com.mho_toys.backend.dto.ProductSortOrder;
+import com.mho_toys.backend.dto.ProductSuggestionDTO;
 import com.mho_toys.backend.exceptions.ApiResponse;
 import com.mho_toys.backend.security.response.MessageResponse;
 import com.mho_toys.backend.service.ProductService;
+import com.mho_toys.backend.utils.ClientIpResolver;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -43,23 +52,103 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
-    @Autowired
-    private ModelMapper modelMapper;
-
-    @GetMapping("/products")
-    public ResponseEntity<List<ProductDTO>> getAllToys() {
+    @GetMapping(value = "/products", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllToys(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.debug("Public request for all products");
         
         try {
-            List<ProductDTO> products = productService.getAllToys();
-            logger.info("Returned {} products for public view", products.size());
-            return ResponseEntity.ok(products);
+            ProductCatalogSnapshot catalog = productService.getCatalogSnapshot();
+
+            // Clients revalidate every time; unchanged catalogs cost a 304 with no body
+            if (catalog.matchesETag(ifNoneMatch)) {
+                logger.debug("Product catalog not modified, returning 304");
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(catalog.getEtag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+
+            logger.info("Returned {} products for public view", catalog.getProducts().size());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(catalog.getJson().length)
+                    .eTag(catalog.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(catalog.getJson());
         } catch (Exception e) {
             logger.error("Error retrieving products: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    @GetMapping("/products/page")
+    public ResponseEntity<?> getToysPage(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size,
+                                         @RequestParam(defaultValue = "id_asc") String sort) {
+        logger.debug("Public request for product page, sort: {}, size: {}", sort, size);
+
+        try {
+            ProductPageDTO page = productService.getToysPage(cursor, size, ProductSortOrder.fromParam(sort));
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid product page request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(MessageResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error retrieving product page: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/products/filter")
+    public ResponseEntity<?> filterToys(@RequestParam(required = false) String ageBucket,
+                                        @RequestParam(required = false) String priceBand,
+                                        @RequestParam(required = false) Double minPrice,
+                                        @RequestParam(required = false) Double maxPrice,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size) {
+        logger.debug("Public product filter request, age: {}, price band: {}, price: {}-{}, size: {}",
+                ageBucket, priceBand, minPrice, maxPrice, size);
+
+        try {
+            ProductFilterResultDTO result = productService.filterToys(ageBucket, priceBand, minPrice, maxPrice,
+                    cursor, size);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid product filter request: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(MessageResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Error filtering products: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/products/search")
+    public ResponseEntity<List<ProductDTO>> searchToys(@RequestParam("q") String query,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        logger.debug("Public product search request, limit: {}", limit);
+
+        try {
+            return ResponseEntity.ok(productService.searchToys(query, limit));
+        } catch (Exception e) {
+            logger.error("Error searching products: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/products/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestToyNames(@RequestParam String prefix,
+                                                                      @RequestParam(defaultValue = "8") int limit) {
+        try {
+            return ResponseEntity.ok(productService.suggestToyNames(prefix, limit));
+        } catch (Exception e) {
+            logger.error("Error suggesting product names: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/products/{productId}")
     public ResponseEntity<ProductDTO> getProductById(@PathVariable Long productId) {
         logger.debug("Public request for product ID: {}", productId);
@@ -79,7 +168,7 @@ public class ProductController {
                                        @AuthenticationPrincipal UserDetails adminUser,
                                        HttpServletRequest request) {
         logger.info("Admin {} adding new product: {} from IP: {}", 
-                   adminUser.getUsername(), productDTO.getName(), getClientIpAddress(request));
+                   adminUser.getUsername(), productDTO.getName(), ClientIpResolver.resolve(request));
         
         try {
             ProductDTO savedProduct = productService.addProduct(productDTO);
@@ -110,7 +199,7 @@ public class ProductController {
                                           @AuthenticationPrincipal UserDetails adminUser,
                                           HttpServletRequest request) {
         logger.info("Admin {} updating product ID: {} from IP: {}", 
-                   adminUser.getUsername(), productId, getClientIpAddress(request));
+                   adminUser.getUsername(), productId, ClientIpResolver.resolve(request));
         
         try {
             ProductDTO updatedProduct = productService.updateProduct(productId, productDTO);
@@ -140,7 +229,7 @@ public class ProductController {
                                                     @AuthenticationPrincipal UserDetails adminUser, 
                                                     HttpServletRequest request) {
         logger.warn("Admin {} deleting product ID: {} from IP: {}", 
-                   adminUser.getUsername(), productId, getClientIpAddress(request));
+                   adminUser.getUsername(), productId, ClientIpResolver.resolve(request));
         
         try {
             productService.deleteProduct(productId);
@@ -186,7 +275,7 @@ public class ProductController {
                                                          @AuthenticationPrincipal UserDetails adminUser,
                                                          HttpServletRequest request) throws IOException {
         logger.info("Admin {} updating image for product ID: {} from IP: {}", 
-                   adminUser.getUsername(), productId, getClientIpAddress(request));
+                   adminUser.getUsername(), productId, ClientIpResolver.resolve(request));
         
         try {
             if (image.isEmpty()) {
@@ -254,13 +343,4 @@ public class ProductController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedForHeader = request.getHeader("X-Forwarded-For");
-        if (xForwardedForHeader == null || xForwardedForHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        } else {
-            return xForwardedForHeader.split(",")[0].trim();
-        }
-    }
 }
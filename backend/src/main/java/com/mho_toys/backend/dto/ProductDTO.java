@@ -1,5 +1,7 @@
 package com.mho_toys.backend.dto;
 
+import java.util.Map;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,6 +20,9 @@ public class ProductDTO {
     private String ageRange;
     private String imageUrl;
 
+    // Resized copies of imageUrl keyed by pixel width, for srcset; empty until generated
+    private Map<Integer, String> imageVariants;
+
 
 
 
@@ -0,0 +1,28 @@
+package com.mho_toys.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilterResultDTO {
+
+    // One page of the filtered result, ordered by productId
+    private List<ProductDTO> items;
+    private long total;
+
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+
+    // Facet counts over the filtered result, keyed by AgeBucket / PriceBand name
+    private Map<String, Long> ageFacets;
+    private Map<String, Long> priceFacets;
+}
@@ -0,0 +1,23 @@
+package com.mho_toys.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductPageDTO {
+
+    private List<ProductDTO> items;
+    private ProductSortOrder sort;
+    private int size;
+
+    // Opaque cursor for the next page, null on the last page
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,24 @@
+package com.mho_toys.backend.dto;
+
+public enum ProductSortOrder {
+
+    ID_ASC,
+    ID_DESC,
+    PRICE_ASC,
+    PRICE_DESC;
+
+    public boolean isByPrice() {
+        return this == PRICE_ASC || this == PRICE_DESC;
+    }
+
+    public static ProductSortOrder fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ID_ASC;
+        }
+        try {
+            return ProductSortOrder.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort order: " + value);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.mho_toys.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSuggestionDTO {
+
+    private Long productId;
+    private String name;
+}
@@ -0,0 +1,49 @@
+package com.mho_toys.backend.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.model.Product;
+import com.mho_toys.backend.storage.ImageVariantLookup;
+
+/**
+ * Hand-written Product/ProductDTO mapping. This sits in the inner loop of every
+ * catalog read, so it is plain field copies with no reflection or type-map setup.
+ */
+@Component
+public class ProductMapper {
+
+    private final ImageVariantLookup imageVariants;
+
+    public ProductMapper(ImageVariantLookup imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
+    public ProductDTO toDto(Product product) {
+        if (product == null) return null;
+
+        return new ProductDTO(
+                product.getProductId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getAgeRange(),
+                product.getImageUrl(),
+                // Served from an in-memory index, not the disk
+                imageVariants.variantUrls(product.getImageUrl())
+        );
+    }
+
+    // The id is never taken from the client; it is assigned on insert
+    public Product toEntity(ProductDTO productDTO) {
+        if (productDTO == null) return null;
+
+        Product product = new Product();
+        product.setName(productDTO.getName());
+        product.setDescription(productDTO.getDescription());
+        product.setPrice(productDTO.getPrice());
+        product.setAgeRange(productDTO.getAgeRange());
+        product.setImageUrl(productDTO.getImageUrl());
+        return product;
+    }
+}
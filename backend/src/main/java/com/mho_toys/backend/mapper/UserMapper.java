@@ -0,0 +1,61 @@
+package com.mho_toys.backend.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.mho_toys.backend.dto.UserDTO;
+import com.mho_toys.backend.model.User;
+
+@Component
+public class UserMapper {
+
+    public UserDTO toDto(User user) {
+        if (user == null) return null;
+        
+        return new UserDTO(
+                user.getUserId(),
+                user.getUserName(),
+                user.getEmail(),
+                user.isAccountNonLocked(),
+                user.isAccountNonExpired(),
+                user.isCredentialsNonExpired(),
+                user.isEnabled(),
+                user.getCredentialsExpiryDate(),
+                user.getAccountExpiryDate(),
+                user.getTwoFactorSecret(),
+                user.isTwoFactorEnabled(),
+                user.getSignUpMethod(),
+                user.getRole(),
+                user.getCreatedDate(),
+                user.getUpdatedDate(),
+                user.getFailedLoginAttempts(),
+                user.getLastLoginDate(),
+                user.getAccountLockedDate()
+        );
+    }
+
+    public User toEntity(UserDTO userDTO) {
+        if (userDTO == null) return null;
+        
+        User user = new User();
+        user.setUserId(userDTO.getUserId());
+        user.setUserName(userDTO.getUserName());
+        user.setEmail(userDTO.getEmail());
+        user.setAccountNonLocked(userDTO.isAccountNonLocked());
+        user.setAccountNonExpired(userDTO.isAccountNonExpired());
+        user.setCredentialsNonExpired(userDTO.isCredentialsNonExpired());
+        user.setEnabled(userDTO.isEnabled());
+        user.setCredentialsExpiryDate(userDTO.getCredentialsExpiryDate());
+        user.setAccountExpiryDate(userDTO.getAccountExpiryDate());
+        user.setTwoFactorSecret(userDTO.getTwoFactorSecret());
+        user.setTwoFactorEnabled(userDTO.isTwoFactorEnabled());
+        user.setSignUpMethod(userDTO.getSignUpMethod());
+        user.setRole(userDTO.getRole());
+        user.setCreatedDate(userDTO.getCreatedDate());
+        user.setUpdatedDate(userDTO.getUpdatedDate());
+        user.setFailedLoginAttempts(userDTO.getFailedLoginAttempts());
+        user.setLastLoginDate(userDTO.getLastLoginDate());
+        user.setAccountLockedDate(userDTO.getAccountLockedDate());
+        
+        return user;
+    }
+}
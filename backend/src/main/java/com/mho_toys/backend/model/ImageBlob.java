@@ -0,0 +1,45 @@
+package com.mho_toys.backend.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A stored image file, named by the SHA-256 digest of its content. The
+ * reference count is the number of products whose imageUrl points at it;
+ * blobs at zero are no longer used and can be deleted from disk.
+ */
+@Entity
+@Table(name = "image_blobs",
+        indexes = @Index(name = "idx_image_blobs_ref_count", columnList = "ref_count"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageBlob {
+
+    // Digest plus extension, e.g. "3a7bd3...e1.png"
+    @Id
+    @Column(name = "file_name", length = 80)
+    private String fileName;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "released_at")
+    private Instant releasedAt;
+}
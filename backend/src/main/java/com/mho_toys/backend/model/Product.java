@@ -6,12 +6,17 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import com.mho_toys.backend.utils.AgeRangeParser;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -24,7 +29,13 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+        indexes = {
+                // Backs keyset pagination ordered by (price, productId)
+                @Index(name = "idx_products_price_id", columnList = "price, product_id"),
+                // Back faceted filtering on age
+                @Index(name = "idx_products_age_months", columnList = "age_min_months, age_max_months")
+        })
 @Getter
 @Setter
 @AllArgsConstructor
@@ -56,6 +67,13 @@ public class Product {
     )
     private String ageRange;
 
+    // Numeric bounds derived from ageRange for filtering; a null maximum means open-ended ("5+ Years")
+    @Column(name = "age_min_months")
+    private Integer ageMinMonths;
+
+    @Column(name = "age_max_months")
+    private Integer ageMaxMonths;
+
     private String imageUrl;
 
     @CreatedDate
@@ -67,4 +85,12 @@ public class Product {
     private Instant updatedAt;
     
     private String updatedBy;
+
+    @PrePersist
+    @PreUpdate
+    public void syncAgeMonths() {
+        AgeRangeParser.AgeRangeMonths months = AgeRangeParser.parse(ageRange);
+        this.ageMinMonths = months != null ? months.minMonths() : null;
+        this.ageMaxMonths = months != null ? months.maxMonths() : null;
+    }
 }
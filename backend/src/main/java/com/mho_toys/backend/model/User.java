@@ -3,6 +3,7 @@ package com.mho_toys.backend.model;
 import java.time.Instant;
 import java.time.LocalDate;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -97,9 +98,18 @@ public class User {
     @Column(name = "last_login_date")
     private Instant lastLoginDate;
 
+    // Lets a buffered login success skip resetting failures that came after it
+    @Column(name = "last_failed_login_date")
+    private Instant lastFailedLoginDate;
+
     @Column(name = "account_locked_date")
     private Instant accountLockedDate;
 
+    // Embedded in issued JWTs; bumping it invalidates every outstanding token of this user
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion = 0;
+
     @CreatedDate
     @Column(name = "created_date", nullable = false, updatable = false)
     private Instant createdDate;
@@ -150,6 +160,10 @@ public class User {
         this.resetFailedLoginAttempts();
     }
 
+    public void rotateTokenVersion() {
+        this.tokenVersion++;
+    }
+
     public boolean isAccountLockedDueToFailedAttempts() {
         return this.failedLoginAttempts >= 5;
     }
@@ -0,0 +1,45 @@
+package com.mho_toys.backend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.mho_toys.backend.model.ImageBlob;
+
+@Repository
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    /**
+     * Takes one reference on a blob, creating its row on first use. A single
+     * upsert, so concurrent uploads of the same content cannot lose a count.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO image_blobs (file_name, size_bytes, ref_count, created_at) "
+            + "VALUES (:fileName, :sizeBytes, 1, now()) "
+            + "ON CONFLICT (file_name) DO UPDATE SET ref_count = image_blobs.ref_count + 1, released_at = NULL",
+            nativeQuery = true)
+    int acquire(@Param("fileName") String fileName, @Param("sizeBytes") long sizeBytes);
+
+    // Only for blobs that already exist; 0 means the name is not one of ours
+    @Modifying
+    @Query("UPDATE ImageBlob b SET b.refCount = b.refCount + 1, b.releasedAt = null WHERE b.fileName = :fileName")
+    int retain(@Param("fileName") String fileName);
+
+    // Locks the row so a concurrent retain or acquire waits until the sweeper has decided
+    @Query(value = "SELECT ref_count FROM image_blobs WHERE file_name = :fileName FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockRefCount(@Param("fileName") String fileName);
+
+    @Modifying
+    @Query(value = "DELETE FROM image_blobs WHERE file_name = :fileName AND ref_count = 0", nativeQuery = true)
+    int deleteUnreferenced(@Param("fileName") String fileName);
+
+    @Modifying
+    @Query(value = "UPDATE image_blobs SET ref_count = GREATEST(ref_count - 1, 0), "
+            + "released_at = CASE WHEN ref_count <= 1 THEN now() ELSE released_at END "
+            + "WHERE file_name = :fileName", nativeQuery = true)
+    int release(@Param("fileName") String fileName);
+}
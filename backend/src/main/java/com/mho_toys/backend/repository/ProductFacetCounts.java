@@ -0,0 +1,12 @@
+package com.mho_toys.backend.repository;
+
+import java.util.Map;
+
+import com.mho_toys.backend.catalog.AgeBucket;
+import com.mho_toys.backend.catalog.PriceBand;
+
+/**
+ * Total and per-facet counts over a filtered product set.
+ */
+public record ProductFacetCounts(long total, Map<AgeBucket, Long> ageBuckets, Map<PriceBand, Long> priceBands) {
+}
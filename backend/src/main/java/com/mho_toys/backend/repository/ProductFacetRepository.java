@@ -0,0 +1,10 @@
+package com.mho_toys.backend.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.mho_toys.backend.model.Product;
+
+public interface ProductFacetRepository {
+
+    ProductFacetCounts countFacets(Specification<Product> filter);
+}
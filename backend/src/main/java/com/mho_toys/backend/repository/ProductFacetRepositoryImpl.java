@@ -0,0 +1,93 @@
+package com.mho_toys.backend.repository;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.mho_toys.backend.catalog.AgeBucket;
+import com.mho_toys.backend.catalog.PriceBand;
+import com.mho_toys.backend.model.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Counts a filtered product set and all of its facets in one aggregate
+ * query: COUNT(*) plus one SUM(CASE WHEN ... THEN 1 ELSE 0 END) per age
+ * bucket and price band, so no product rows leave the database.
+ */
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public ProductFacetCounts countFacets(Specification<Product> filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(cb.count(root));
+        for (AgeBucket bucket : AgeBucket.values()) {
+            selections.add(countWhere(cb, ageOverlaps(cb, root, bucket)));
+        }
+        for (PriceBand band : PriceBand.values()) {
+            selections.add(countWhere(cb, priceIn(cb, root, band)));
+        }
+        query.multiselect(selections);
+
+        Predicate where = filter.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+
+        Tuple row = entityManager.createQuery(query).getSingleResult();
+        int column = 0;
+        long total = asLong(row.get(column++));
+        Map<AgeBucket, Long> ageBuckets = new EnumMap<>(AgeBucket.class);
+        for (AgeBucket bucket : AgeBucket.values()) {
+            ageBuckets.put(bucket, asLong(row.get(column++)));
+        }
+        Map<PriceBand, Long> priceBands = new EnumMap<>(PriceBand.class);
+        for (PriceBand band : PriceBand.values()) {
+            priceBands.put(band, asLong(row.get(column++)));
+        }
+        return new ProductFacetCounts(total, ageBuckets, priceBands);
+    }
+
+    private static Selection<Long> countWhere(CriteriaBuilder cb, Predicate condition) {
+        return cb.sumAsLong(cb.<Integer>selectCase().when(condition, 1).otherwise(0));
+    }
+
+    // Same rule as AgeBucket.overlaps; rows without parsed age bounds match no bucket
+    private static Predicate ageOverlaps(CriteriaBuilder cb, Root<Product> root, AgeBucket bucket) {
+        return cb.and(
+                cb.lessThanOrEqualTo(root.get("ageMinMonths"), bucket.getMaxMonths()),
+                cb.or(
+                        cb.isNull(root.get("ageMaxMonths")),
+                        cb.greaterThanOrEqualTo(root.get("ageMaxMonths"), bucket.getMinMonths())));
+    }
+
+    // Same rule as PriceBand.of: the top band is open-ended
+    private static Predicate priceIn(CriteriaBuilder cb, Root<Product> root, PriceBand band) {
+        Predicate atLeast = cb.greaterThanOrEqualTo(root.get("price"), band.getMinPrice());
+        return band.getMaxPrice() == Double.MAX_VALUE
+                ? atLeast
+                : cb.and(atLeast, cb.lessThan(root.get("price"), band.getMaxPrice()));
+    }
+
+    // SUM over no rows is NULL
+    private static long asLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+}
@@ -1,13 +1,55 @@
 package com.mho_toys.backend.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.mho_toys.backend.model.Product;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductFacetRepository {
 
 
     boolean existsByName(String name);
+
+    @Query("SELECT p.imageUrl FROM Product p WHERE p.imageUrl IS NOT NULL")
+    List<String> findAllImageUrls();
+
+    // Rows written before the age columns existed
+    List<Product> findByAgeMinMonthsIsNullAndAgeRangeIsNotNull();
+
+    // Keyset (seek) pagination: first pages, then "rows after the last key seen".
+    // Only the Pageable size is used, so every page is an index range scan with no OFFSET.
+
+    List<Product> findAllByOrderByProductIdAsc(Pageable pageable);
+
+    List<Product> findAllByOrderByProductIdDesc(Pageable pageable);
+
+    List<Product> findAllByOrderByPriceAscProductIdAsc(Pageable pageable);
+
+    List<Product> findAllByOrderByPriceDescProductIdDesc(Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.productId > :productId ORDER BY p.productId ASC")
+    List<Product> findPageAfterId(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE p.productId < :productId ORDER BY p.productId DESC")
+    List<Product> findPageBeforeId(@Param("productId") Long productId, Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (p.price, p.productId) > (:price, :productId) " +
+           "ORDER BY p.price ASC, p.productId ASC")
+    List<Product> findPageAfterPrice(@Param("price") Double price,
+                                     @Param("productId") Long productId,
+                                     Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (p.price, p.productId) < (:price, :productId) " +
+           "ORDER BY p.price DESC, p.productId DESC")
+    List<Product> findPageBeforePrice(@Param("price") Double price,
+                                      @Param("productId") Long productId,
+                                      Pageable pageable);
 }
@@ -0,0 +1,44 @@
+package com.mho_toys.backend.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.mho_toys.backend.model.Product;
+
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    // Keyset condition for filter pages ordered by productId
+    public static Specification<Product> idAfter(Long productId) {
+        return (root, query, cb) -> productId == null
+                ? null
+                : cb.greaterThan(root.get("productId"), productId);
+    }
+
+    public static Specification<Product> priceAtLeast(Double minPrice) {
+        return (root, query, cb) -> minPrice == null
+                ? null
+                : cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceBelow(Double maxPrice) {
+        return (root, query, cb) -> maxPrice == null
+                ? null
+                : cb.lessThan(root.get("price"), maxPrice);
+    }
+
+    // Age range [ageMinMonths, ageMaxMonths] overlaps [minMonths, maxMonths]; a null product maximum is open-ended
+    public static Specification<Product> ageOverlaps(Integer minMonths, Integer maxMonths) {
+        return (root, query, cb) -> {
+            if (minMonths == null || maxMonths == null) {
+                return null;
+            }
+            return cb.and(
+                    cb.lessThanOrEqualTo(root.get("ageMinMonths"), maxMonths),
+                    cb.or(
+                            cb.isNull(root.get("ageMaxMonths")),
+                            cb.greaterThanOrEqualTo(root.get("ageMaxMonths"), minMonths)));
+        };
+    }
+}
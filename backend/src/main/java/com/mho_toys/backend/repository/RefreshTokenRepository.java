@@ -0,0 +1,39 @@
+package com.mho_toys.backend.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mho_toys.backend.model.RefreshToken;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Claims the token for one rotation; 0 means it was already used or revoked
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.usedAt = :now WHERE r.refreshTokenId = :id AND r.usedAt IS NULL AND r.revoked = false")
+    int markUsed(@Param("id") Long id, @Param("now") Instant now);
+
+    // Reads the committed state after a lost markUsed; empty if the token was revoked meanwhile
+    @Query("SELECT r.usedAt FROM RefreshToken r WHERE r.refreshTokenId = :id AND r.revoked = false AND r.usedAt IS NOT NULL")
+    Optional<Instant> findUsedAtIfActive(@Param("id") Long id);
+
+    boolean existsByFamilyIdAndRevokedTrue(String familyId);
+
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
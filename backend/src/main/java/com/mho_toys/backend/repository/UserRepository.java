@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.mho_toys.backend.model.User;
 
@@ -21,6 +22,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     Optional<User> findByUserNameOrEmail(String userName, String email);
 
+    // Current token version of an active account; empty if missing, disabled or locked
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.userName = :userName AND u.enabled = true AND u.accountNonLocked = true")
+    Optional<Long> findActiveTokenVersion(@Param("userName") String userName);
+
     Boolean existsByUserName(String userName);
     
     Boolean existsByEmail(String email);
@@ -60,6 +65,34 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("UPDATE User u SET u.accountNonLocked = true, u.accountLockedDate = null, u.failedLoginAttempts = 0 WHERE u.accountNonLocked = false")
     int unlockAllAccounts();
 
+    /**
+     * Records one failed attempt in a single statement and returns the new
+     * count. Reaching maxAttempts locks the account and bumps its token
+     * version in the same statement. All SET expressions see the row as it
+     * was before the update, so concurrent attempts are never lost.
+     */
+    @Transactional
+    @Query(value = "UPDATE users SET failed_login_attempts = failed_login_attempts + 1, "
+            + "last_failed_login_date = :failedAt, "
+            + "account_locked_date = CASE WHEN account_non_locked AND failed_login_attempts + 1 >= :maxAttempts "
+            + "THEN now() ELSE account_locked_date END, "
+            + "token_version = CASE WHEN account_non_locked AND failed_login_attempts + 1 >= :maxAttempts "
+            + "THEN token_version + 1 ELSE token_version END, "
+            + "account_non_locked = account_non_locked AND failed_login_attempts + 1 < :maxAttempts "
+            + "WHERE username = :userName "
+            + "RETURNING failed_login_attempts", nativeQuery = true)
+    Optional<Integer> incrementFailedLoginAttempts(@Param("userName") String userName,
+                                                   @Param("maxAttempts") int maxAttempts,
+                                                   @Param("failedAt") Instant failedAt);
+
+    @Modifying
+    @Query("UPDATE User u SET u.failedLoginAttempts = 0 WHERE u.userName = :userName AND u.failedLoginAttempts > 0")
+    int resetFailedLoginAttempts(@Param("userName") String userName);
+
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.userName = :userName")
+    int updatePassword(@Param("userName") String userName, @Param("password") String password);
+
     @Modifying
     @Query("UPDATE User u SET u.lastLoginDate = :loginDate WHERE u.userId = :userId")
     int updateLastLoginDate(@Param("userId") Long userId, @Param("loginDate") Instant loginDate);
@@ -0,0 +1,80 @@
+package com.mho_toys.backend.security;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mho_toys.backend.utils.ClientIpResolver;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Rejects excess requests to the public authentication endpoints with 429
+ * before they reach password hashing or the database. Registered in the
+ * security chain ahead of AuthTokenFilter.
+ */
+public class AuthRateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthRateLimitFilter.class);
+
+    private static final Set<String> LIMITED_PATHS = Set.of(
+            "/api/auth/public/signin",
+            "/api/auth/public/signup",
+            "/api/auth/public/forgot-password",
+            "/api/auth/public/reset-password",
+            "/api/auth/public/init-admin",
+            "/api/auth/public/refresh");
+
+    private final AuthRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public AuthRateLimitFilter(AuthRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String clientIp = ClientIpResolver.resolve(request);
+        if (!rateLimiter.tryAcquireForIp(clientIp)) {
+            logger.warn("Rate limit exceeded for IP: {} on path: {}", clientIp, request.getServletPath());
+            writeTooManyRequests(response, request.getServletPath(), rateLimiter.getIpRetryAfterSeconds(clientIp));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || !LIMITED_PATHS.contains(request.getServletPath());
+    }
+
+    private void writeTooManyRequests(HttpServletResponse response, String path, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Too many requests, please try again later");
+        body.put("path", path);
+        body.put("timestamp", LocalDateTime.now().toString());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
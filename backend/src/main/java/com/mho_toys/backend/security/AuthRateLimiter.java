@@ -0,0 +1,97 @@
+package com.mho_toys.backend.security;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.mho_toys.backend.utils.SlidingWindowRateLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Sliding-window limits for the public authentication endpoints: one
+ * budget per client IP, checked by AuthRateLimitFilter before the request
+ * reaches any controller, and one per username, checked by sign-in before
+ * the password is hashed.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private static final int MAX_TRACKED_KEYS = 50_000;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mho.app.rateLimit.ip.limit:30}")
+    private int ipLimit;
+
+    @Value("${mho.app.rateLimit.ip.windowSeconds:60}")
+    private long ipWindowSeconds;
+
+    @Value("${mho.app.rateLimit.username.limit:10}")
+    private int usernameLimit;
+
+    @Value("${mho.app.rateLimit.username.windowSeconds:300}")
+    private long usernameWindowSeconds;
+
+    private SlidingWindowRateLimiter byIp;
+    private SlidingWindowRateLimiter byUsername;
+
+    private Counter ipRejections;
+    private Counter usernameRejections;
+
+    @PostConstruct
+    void init() {
+        byIp = new SlidingWindowRateLimiter(ipLimit, ipWindowSeconds * 1000, MAX_TRACKED_KEYS);
+        byUsername = new SlidingWindowRateLimiter(usernameLimit, usernameWindowSeconds * 1000, MAX_TRACKED_KEYS);
+
+        ipRejections = Counter.builder("auth.rate_limit.rejected").tag("key", "ip").register(meterRegistry);
+        usernameRejections = Counter.builder("auth.rate_limit.rejected").tag("key", "username").register(meterRegistry);
+        Gauge.builder("auth.rate_limit.keys", byIp, SlidingWindowRateLimiter::size).tag("key", "ip").register(meterRegistry);
+        Gauge.builder("auth.rate_limit.keys", byUsername, SlidingWindowRateLimiter::size).tag("key", "username").register(meterRegistry);
+    }
+
+    public boolean tryAcquireForIp(String clientIp) {
+        boolean allowed = byIp.tryAcquire(clientIp);
+        if (!allowed) {
+            ipRejections.increment();
+        }
+        return allowed;
+    }
+
+    public boolean tryAcquireForUsername(String username) {
+        if (username == null) {
+            return true;
+        }
+        boolean allowed = byUsername.tryAcquire(username.toLowerCase(Locale.ROOT));
+        if (!allowed) {
+            usernameRejections.increment();
+        }
+        return allowed;
+    }
+
+    public long getIpRetryAfterSeconds(String clientIp) {
+        return toRetryAfterSeconds(byIp.retryAfterMs(clientIp));
+    }
+
+    public long getUsernameRetryAfterSeconds(String username) {
+        return username != null ? toRetryAfterSeconds(byUsername.retryAfterMs(username.toLowerCase(Locale.ROOT))) : 1;
+    }
+
+    // Retry-After has whole-second resolution; round up so a prompt retry is not rejected again
+    private static long toRetryAfterSeconds(long retryAfterMs) {
+        return Math.max(1, (retryAfterMs + 999) / 1000);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleKeys() {
+        byIp.evictIdle();
+        byUsername.evictIdle();
+    }
+}
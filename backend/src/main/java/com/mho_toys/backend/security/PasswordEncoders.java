@@ -0,0 +1,36 @@
+package com.mho_toys.backend.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Builds the application's password encoder.
+ *
+ * New hashes are written as {bcrypt} at the configured strength. Hashes
+ * stored before ids were used carry no {id} prefix; they are verified as
+ * BCrypt (which reads the cost from the hash itself) and reported by
+ * upgradeEncoding, so they are rewritten on the user's next sign-in, as are
+ * {bcrypt} hashes below the configured strength.
+ */
+public final class PasswordEncoders {
+
+    public static final String DEFAULT_ID = "bcrypt";
+
+    private PasswordEncoders() {
+    }
+
+    public static PasswordEncoder delegating(int bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(DEFAULT_ID, new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(DEFAULT_ID, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptStrength));
+        return encoder;
+    }
+}
@@ -0,0 +1,65 @@
+package com.mho_toys.backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Measures BCrypt cost on the current host so the work factor can be chosen
+ * per deployment. Enabled with mho.app.passwordHashing.calibrate=true; logs
+ * the per-hash latency of each strength and the highest strength that stays
+ * within mho.app.passwordHashing.targetMs.
+ */
+@Component
+@ConditionalOnProperty(name = "mho.app.passwordHashing.calibrate", havingValue = "true")
+public class PasswordHashCalibrator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashCalibrator.class);
+
+    private static final int MIN_STRENGTH = 10;
+    private static final int MAX_STRENGTH = 14;
+    private static final int SAMPLES = 5;
+
+    @Value("${mho.app.passwordHashing.targetMs:250}")
+    private long targetMs;
+
+    @Value("${mho.app.passwordHashing.bcryptStrength:12}")
+    private int configuredStrength;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void calibrate() {
+        logger.info("Calibrating BCrypt on {} cores, target {}ms per hash",
+                Runtime.getRuntime().availableProcessors(), targetMs);
+
+        int recommended = MIN_STRENGTH;
+        for (int strength = MIN_STRENGTH; strength <= MAX_STRENGTH; strength++) {
+            double millis = measure(new BCryptPasswordEncoder(strength));
+            logger.info("BCrypt strength {}: {} ms per hash{}", strength, String.format("%.1f", millis),
+                    strength == configuredStrength ? " (configured)" : "");
+            if (millis <= targetMs) {
+                recommended = strength;
+            } else {
+                // Each step doubles the cost, higher strengths can only be slower
+                break;
+            }
+        }
+
+        logger.info("Recommended mho.app.passwordHashing.bcryptStrength={} (currently {})", recommended, configuredStrength);
+    }
+
+    private static double measure(BCryptPasswordEncoder encoder) {
+        String hash = encoder.encode("calibration-password");
+        encoder.matches("calibration-password", hash); // warm-up
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SAMPLES; i++) {
+            encoder.matches("calibration-password", hash);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / SAMPLES;
+    }
+}
@@ -3,6 +3,7 @@ package com.mho_toys.backend.security;
 import java.time.LocalDate;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,7 +14,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -29,6 +29,8 @@ import com.mho_toys.backend.security.jwt.AuthEntryPointJwt;
 import com.mho_toys.backend.security.jwt.AuthTokenFilter;
 import com.mho_toys.backend.security.service.UserDetailsServiceImpl;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(
@@ -41,6 +43,28 @@ public class SecurityConfig {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
+    @Value("${mho.app.passwordHashing.bcryptStrength:12}")
+    private int bcryptStrength;
+
+    // 0 means one thread per two cores
+    @Value("${mho.app.passwordHashing.threads:0}")
+    private int passwordHashingThreads;
+
+    @Value("${mho.app.passwordHashing.queueCapacity:32}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${mho.app.passwordHashing.maxWaitMs:5000}")
+    private long passwordHashingMaxWaitMs;
+
+    @Value("${mho.app.passwordHashing.retryAfterSeconds:2}")
+    private long passwordHashingRetryAfterSeconds;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -70,7 +94,7 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
-                        .requestMatchers("/uploads/**").permitAll()
+                        .requestMatchers("/images/**").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
@@ -103,6 +127,8 @@ public class SecurityConfig {
         // Add authentication provider and filter
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        // Not a bean, so it is not also registered as a servlet filter
+        http.addFilterBefore(new AuthRateLimitFilter(authRateLimiter), AuthTokenFilter.class);
 
         return http.build();
     }
@@ -117,6 +143,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehashes legacy or weaker hashes after a successful sign-in
+        authProvider.setUserDetailsPasswordService(userDetailsService());
         return authProvider;
     }
 
@@ -127,7 +155,16 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12);
+        int threads = passwordHashingThreads > 0
+                ? passwordHashingThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(
+                PasswordEncoders.delegating(bcryptStrength),
+                threads,
+                passwordHashingQueueCapacity,
+                passwordHashingMaxWaitMs,
+                passwordHashingRetryAfterSeconds,
+                meterRegistry);
     }
 
     @Bean
@@ -1,6 +1,7 @@
 package com.mho_toys.backend.security.jwt;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mho_toys.backend.utils.ClientIpResolver;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,7 +28,7 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
         
         logger.error("Unauthorized error: {}", authException.getMessage());
         logger.warn("Unauthorized access attempt from IP: {} to path: {}", 
-                   getClientIpAddress(request), request.getServletPath());
+                   ClientIpResolver.resolve(request), request.getServletPath());
 
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -42,14 +43,4 @@ public class AuthEntryPointJwt implements AuthenticationEntryPoint {
         final ObjectMapper mapper = new ObjectMapper();
         mapper.writeValue(response.getOutputStream(), body);
     }
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        String xForwardedForHeader = request.getHeader("X-Forwarded-For");
-        if (xForwardedForHeader == null) {
-            return request.getRemoteAddr();
-        } else {
-            // X-Forwarded-For can contain multiple IPs, get the first one
-            return xForwardedForHeader.split(",")[0].trim();
-        }
-    }
 } 
\ No newline at end of file
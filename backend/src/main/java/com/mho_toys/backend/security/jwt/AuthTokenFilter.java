@@ -13,6 +13,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.mho_toys.backend.security.service.TokenRevocationService;
+import com.mho_toys.backend.security.service.TokenVersionRegistry;
+import com.mho_toys.backend.security.service.UserDetailsImpl;
 import com.mho_toys.backend.security.service.UserDetailsServiceImpl;
 
 import jakarta.servlet.FilterChain;
@@ -29,6 +32,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
 
     @Override
@@ -40,16 +49,21 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         
         try {
             String jwt = parseJwt(request);
+
+            // Signature and expiry are verified exactly once; the claims are reused below
+            JwtTokenClaims claims = jwt != null ? jwtUtils.parseValidToken(jwt) : null;
             
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            if (claims != null && tokenRevocationService.isRevoked(claims)) {
+                logger.warn("Rejected revoked JWT for user: {}", claims.subject());
+            } else if (claims != null) {
+                String username = claims.subject();
                 
                 logger.debug("JWT token valid for user: {}", username);
                 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = resolvePrincipal(claims);
                 
                 // Additional validation: check if token is valid for this specific user
-                if (jwtUtils.validateTokenForUser(jwt, userDetails)) {
+                if (userDetails != null && jwtUtils.validateTokenForUser(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authentication = 
                             new UsernamePasswordAuthenticationToken(
                                 userDetails, 
@@ -76,30 +90,26 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String parseJwt(HttpServletRequest request) {
-        // First try Authorization header
-        String jwt = jwtUtils.getJwtFromHeader(request);
-        
-        // If no header token, try cookies
-        if (jwt == null) {
-            jwt = getJwtFromCookies(request);
+    /**
+     * Tokens carrying principal claims are trusted as long as their version is
+     * still current, which avoids loading the user on every request. Older
+     * tokens without those claims fall back to the database.
+     */
+    private UserDetails resolvePrincipal(JwtTokenClaims claims) {
+        if (!claims.hasPrincipalClaims()) {
+            return userDetailsService.loadUserByUsername(claims.subject());
         }
-        
-        logger.debug("JWT token found: {}", jwt != null ? "[PROTECTED]" : "null");
-        return jwt;
+        if (!tokenVersionRegistry.isCurrent(claims.subject(), claims.tokenVersion())) {
+            logger.warn("Rejected JWT with stale token version for user: {}", claims.subject());
+            return null;
+        }
+        return UserDetailsImpl.fromClaims(claims);
     }
 
-    private String getJwtFromCookies(HttpServletRequest request) {
-        if (request.getCookies() != null) {
-            for (jakarta.servlet.http.Cookie cookie : request.getCookies()) {
-                if ("jwtToken".equals(cookie.getName())) {
-                    logger.debug("JWT token found in cookie");
-                    return cookie.getValue();
-                }
-            }
-        }
-        logger.debug("No JWT token found in cookies");
-        return null;
+    private String parseJwt(HttpServletRequest request) {
+        String jwt = jwtUtils.getJwtFromRequest(request);
+        logger.debug("JWT token found: {}", jwt != null ? "[PROTECTED]" : "null");
+        return jwt;
     }
 
     @Override
@@ -0,0 +1,29 @@
+package com.mho_toys.backend.security.jwt;
+
+import java.util.Date;
+
+/**
+ * The claims this application reads from a verified token, extracted in a
+ * single parse.
+ *
+ * userId, role and tokenVersion are null for tokens issued before they were
+ * embedded; such tokens fall back to loading the principal from the database.
+ * tokenId (the jti claim) is likewise null for older tokens, which can then
+ * only be invalidated through the user's token version.
+ */
+public record JwtTokenClaims(String tokenId,
+                             String subject,
+                             Date expiration,
+                             Date issuedAt,
+                             Long userId,
+                             String role,
+                             Long tokenVersion) {
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    public boolean hasPrincipalClaims() {
+        return userId != null && role != null && tokenVersion != null;
+    }
+}
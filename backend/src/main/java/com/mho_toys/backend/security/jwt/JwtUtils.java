@@ -1,23 +1,31 @@
 package com.mho_toys.backend.security.jwt;
 
-import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.mho_toys.backend.security.service.UserDetailsImpl;
+
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 
 
@@ -25,12 +33,30 @@ import jakarta.servlet.http.HttpServletRequest;
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
+    public static final String AUTH_COOKIE_NAME = "jwtToken";
+
     @Value("${mho.app.jwtSecret}")
     private String jwtSecret;
 
     @Value("${mho.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    // Decoded once at startup; the parser is immutable and thread-safe, so every request shares it
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     public String getJwtFromHeader(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         logger.debug("Authorization Header: {}", bearerToken != null ? "Bearer [PROTECTED]" : "null");
@@ -41,6 +67,29 @@ public class JwtUtils {
         return null;
     }
 
+    public String getJwtFromCookies(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (AUTH_COOKIE_NAME.equals(cookie.getName())) {
+                    logger.debug("JWT token found in cookie");
+                    return cookie.getValue();
+                }
+            }
+        }
+        logger.debug("No JWT token found in cookies");
+        return null;
+    }
+
+    // Authorization header first, then the auth cookie
+    public String getJwtFromRequest(HttpServletRequest request) {
+        String jwt = getJwtFromHeader(request);
+        return jwt != null ? jwt : getJwtFromCookies(request);
+    }
+
+    public long getJwtExpirationMs() {
+        return jwtExpirationMs;
+    }
+
     public String generateTokenFromUsername(UserDetails userDetails) {
         String username = userDetails.getUsername();
         Date now = new Date();
@@ -48,11 +97,12 @@ public class JwtUtils {
         
         logger.debug("Generating JWT token for user: {}", username);
         
-        return Jwts.builder()
+        return withPrincipalClaims(Jwts.builder(), userDetails)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
     }
 
@@ -63,30 +113,53 @@ public class JwtUtils {
         
         logger.debug("Generating custom JWT token for user: {} with expiration: {}ms", username, expirationMs);
         
-        return Jwts.builder()
+        return withPrincipalClaims(Jwts.builder(), userDetails)
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
     }
 
+    // Lets AuthTokenFilter rebuild the principal from the token instead of loading the user per request
+    private JwtBuilder withPrincipalClaims(JwtBuilder builder, UserDetails userDetails) {
+        if (userDetails instanceof UserDetailsImpl user) {
+            String role = user.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .findFirst()
+                    .orElse(null);
+            if (user.getId() != null && role != null) {
+                builder.claim(CLAIM_USER_ID, user.getId())
+                        .claim(CLAIM_ROLE, role)
+                        .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Verifies the signature and expiry once and returns everything callers need.
+     * Throws a JwtException (or IllegalArgumentException) for invalid tokens.
+     */
+    public JwtTokenClaims parseToken(String token) {
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        return new JwtTokenClaims(
+                claims.getId(),
+                claims.getSubject(),
+                claims.getExpiration(),
+                claims.getIssuedAt(),
+                claims.get(CLAIM_USER_ID, Long.class),
+                claims.get(CLAIM_ROLE, String.class),
+                claims.get(CLAIM_TOKEN_VERSION, Long.class));
+    }
+
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseToken(token).subject();
     }
 
     public Date getExpirationDateFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+        return parseToken(token).expiration();
     }
 
     public boolean isJwtTokenExpired(String token) {
@@ -94,18 +167,18 @@ public class JwtUtils {
         return expiration.before(new Date());
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public boolean validateJwtToken(String authToken) {
+        return parseValidToken(authToken) != null;
     }
 
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Single-parse validation for the request filter: returns the verified claims,
+     * or null (after logging why) if the token is invalid or expired.
+     */
+    public JwtTokenClaims parseValidToken(String authToken) {
         try {
             logger.debug("Validating JWT token");
-            Jwts.parser()
-                .verifyWith((SecretKey) key())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return parseToken(authToken);
         } catch (SignatureException e) {
             logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (MalformedJwtException e) {
@@ -119,11 +192,15 @@ public class JwtUtils {
         } catch (Exception e) {
             logger.error("JWT token validation failed: {}", e.getMessage());
         }
-        return false;
+        return null;
     }
 
     public boolean validateTokenForUser(String token, UserDetails userDetails) {
-        final String username = getUserNameFromJwtToken(token);
-        return (username.equals(userDetails.getUsername()) && !isJwtTokenExpired(token));
+        JwtTokenClaims claims = parseToken(token);
+        return validateTokenForUser(claims, userDetails);
+    }
+
+    public boolean validateTokenForUser(JwtTokenClaims claims, UserDetails userDetails) {
+        return (claims.subject().equals(userDetails.getUsername()) && !claims.isExpired());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.mho_toys.backend.security.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for successful sign-ins.
+ *
+ * A success only needs to stamp last_login_date and clear the failure
+ * counter, so repeated logins of the same user between flushes collapse
+ * into one pending entry and all pending entries are written with a single
+ * JDBC batch. Failures are not buffered: they decide whether an account
+ * gets locked and are recorded synchronously by UserServiceImpl. A flush
+ * can still land after a newer failure, e.g. when the scheduled batch took
+ * the entry just before the failure was written, so the counter is only
+ * cleared if the last failure is not newer than the buffered login.
+ */
+@Component
+public class LoginEventBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginEventBuffer.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE users SET last_login_date = ?, "
+            + "failed_login_attempts = CASE WHEN last_failed_login_date IS NULL OR last_failed_login_date <= ? "
+            + "THEN 0 ELSE failed_login_attempts END "
+            + "WHERE username = ?";
+
+    // Flushed early by the recording thread if a burst outgrows this
+    private static final int MAX_PENDING = 10_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // username -> time of the latest successful login not yet written
+    private final Map<String, Instant> pending = new ConcurrentHashMap<>();
+
+    public void recordSuccess(String username) {
+        pending.put(username, Instant.now());
+        if (pending.size() >= MAX_PENDING) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the user's pending success now, inside the caller's transaction
+     * if there is one.
+     */
+    public void flushUser(String username) {
+        Instant loginDate = pending.remove(username);
+        if (loginDate != null) {
+            Timestamp at = Timestamp.from(loginDate);
+            jdbcTemplate.update(FLUSH_SQL, at, at, username);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mho.app.loginEvents.flushIntervalMs:2000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<String, Instant> entry : pending.entrySet()) {
+            // Only take the value we read; a newer login for the same user stays queued for the next flush
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                Timestamp at = Timestamp.from(entry.getValue());
+                batch.add(new Object[] {at, at, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            logger.debug("Flushed {} buffered login events", batch.size());
+        } catch (Exception e) {
+            // Bookkeeping only; losing a last-login stamp is preferable to retrying into a struggling database
+            logger.error("Failed to flush {} buffered login events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,179 @@
+package com.mho_toys.backend.security.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.mho_toys.backend.model.RefreshToken;
+import com.mho_toys.backend.repository.RefreshTokenRepository;
+
+/**
+ * Issues and rotates refresh tokens.
+ *
+ * Access tokens are short-lived; a client keeps its session by exchanging
+ * its refresh token for a new access token and a new refresh token. Each
+ * refresh token works once, except for a few seconds after its first use,
+ * so two tabs refreshing the same cookie at once both succeed. Presenting
+ * a used token after that window means it was copied, so the whole session
+ * family is revoked and both holders have to sign in again.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Value("${mho.app.refreshTokenExpirationMs:86400000}")
+    private long refreshTokenExpirationMs;
+
+    @Value("${mho.app.rememberMeRefreshTokenExpirationMs:604800000}")
+    private long rememberMeRefreshTokenExpirationMs;
+
+    @Value("${mho.app.refreshTokens.reuseGraceMs:5000}")
+    private long reuseGraceMs;
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    public record Rotation(UserDetailsImpl principal, IssuedToken refreshToken) {
+    }
+
+    /**
+     * Starts a new session family. Its lifetime is fixed at sign-in;
+     * rotation does not extend it.
+     */
+    @Transactional
+    public IssuedToken issue(UserDetailsImpl user, boolean rememberMe) {
+        long lifetimeMs = rememberMe ? rememberMeRefreshTokenExpirationMs : refreshTokenExpirationMs;
+        Instant expiresAt = Instant.now().plus(Duration.ofMillis(lifetimeMs));
+        return save(UUID.randomUUID().toString(), user.getUsername(), user.getTokenVersion(), expiresAt);
+    }
+
+    /**
+     * Exchanges a refresh token for the next one in its family. Empty if the
+     * token is unknown, expired, reused, or its user can no longer sign in.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String rawToken) {
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshToken current = found.get();
+        if (current.isRevoked()) {
+            return Optional.empty();
+        }
+        Instant now = Instant.now();
+        boolean firstUse = current.getUsedAt() == null
+                && refreshTokenRepository.markUsed(current.getRefreshTokenId(), now) > 0;
+        if (!firstUse) {
+            // markUsed also returns 0 when the token was revoked concurrently, so the row is read again
+            Optional<Instant> usedAt = current.getUsedAt() != null
+                    ? Optional.of(current.getUsedAt())
+                    : refreshTokenRepository.findUsedAtIfActive(current.getRefreshTokenId());
+            if (usedAt.isEmpty()) {
+                return Optional.empty();
+            }
+            if (usedAt.get().isBefore(now.minusMillis(reuseGraceMs))) {
+                logger.warn("Refresh token reuse detected for user: {}, revoking session family", current.getUsername());
+                refreshTokenRepository.revokeFamily(current.getFamilyId());
+                return Optional.empty();
+            }
+            logger.debug("Refresh token for user: {} presented again within the grace period", current.getUsername());
+        }
+        if (current.isExpired()) {
+            return Optional.empty();
+        }
+
+        UserDetailsImpl principal = loadActivePrincipal(current);
+        if (principal == null) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            return Optional.empty();
+        }
+
+        // A family revoked by reuse detection or logout after this token was read must not get a new member
+        if (refreshTokenRepository.existsByFamilyIdAndRevokedTrue(current.getFamilyId())) {
+            return Optional.empty();
+        }
+
+        IssuedToken next = save(current.getFamilyId(), current.getUsername(), principal.getTokenVersion(), current.getExpiresAt());
+        return Optional.of(new Rotation(principal, next));
+    }
+
+    // Ends the session the token belongs to, e.g. on logout
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Scheduled(cron = "${mho.app.refreshTokens.pruneCron:0 45 * * * *}")
+    public void pruneExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("Pruned {} expired refresh tokens", deleted);
+        }
+    }
+
+    private UserDetailsImpl loadActivePrincipal(RefreshToken token) {
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(token.getUsername());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        if (!(user instanceof UserDetailsImpl principal)
+                || !principal.isEnabled()
+                || !principal.isAccountNonLocked()
+                || principal.getTokenVersion() != token.getTokenVersion()) {
+            logger.warn("Refresh rejected for user: {}, account changed since sign-in", token.getUsername());
+            return null;
+        }
+        return principal;
+    }
+
+    private IssuedToken save(String familyId, String username, long tokenVersion, Instant expiresAt) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId, username, tokenVersion, expiresAt));
+        return new IssuedToken(rawToken, expiresAt);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mho_toys.backend.security.service;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.mho_toys.backend.model.RevokedToken;
+import com.mho_toys.backend.repository.RevokedTokenRepository;
+import com.mho_toys.backend.security.jwt.JwtTokenClaims;
+import com.mho_toys.backend.utils.BloomFilter;
+
+/**
+ * Server-side revocation of individual tokens by jti.
+ *
+ * Revoked ids are persisted until the token would have expired. Every
+ * request checks an in-memory Bloom filter first; only a positive answer,
+ * meaning the token is revoked or a rare false positive, is confirmed
+ * against the database. The filter is rebuilt periodically from the table,
+ * which picks up revocations made by other nodes and forgets expired ones.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final int MIN_FILTER_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private volatile BloomFilter filter = new BloomFilter(MIN_FILTER_CAPACITY, FALSE_POSITIVE_PROBABILITY);
+
+    public void revoke(JwtTokenClaims claims) {
+        if (claims == null || claims.tokenId() == null) {
+            return;
+        }
+        Instant expiresAt = claims.expiration() != null ? claims.expiration().toInstant() : Instant.now();
+        revokedTokenRepository.save(new RevokedToken(claims.tokenId(), claims.subject(), expiresAt, Instant.now()));
+        // Added after the row is committed, under the reload lock, so a concurrent reload cannot drop it
+        synchronized (this) {
+            filter.add(claims.tokenId());
+        }
+        logger.info("Revoked token for user: {}", claims.subject());
+    }
+
+    public boolean isRevoked(JwtTokenClaims claims) {
+        String tokenId = claims.tokenId();
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${mho.app.tokenRevocation.reloadIntervalMs:60000}",
+            initialDelayString = "${mho.app.tokenRevocation.reloadIntervalMs:60000}")
+    public synchronized void reload() {
+        List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(Instant.now());
+
+        // Sized with headroom so revocations until the next reload keep the false-positive rate low
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_FILTER_CAPACITY, tokenIds.size() * 2), FALSE_POSITIVE_PROBABILITY);
+        tokenIds.forEach(rebuilt::add);
+        filter = rebuilt;
+
+        logger.debug("Token revocation filter rebuilt with {} revoked tokens", tokenIds.size());
+    }
+
+    @Scheduled(cron = "${mho.app.tokenRevocation.pruneCron:0 15 * * * *}")
+    public void pruneExpired() {
+        int deleted = revokedTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.info("Pruned {} expired revoked tokens", deleted);
+        }
+    }
+}
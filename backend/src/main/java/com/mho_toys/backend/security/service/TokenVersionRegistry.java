@@ -0,0 +1,56 @@
+package com.mho_toys.backend.security.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mho_toys.backend.repository.UserRepository;
+import com.mho_toys.backend.utils.BoundedTtlCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Answers "is this token version still current for this user" without
+ * loading the user entity.
+ *
+ * Each user's current version is read with a single-column query and kept
+ * for a short TTL. Writes that change what a token grants (role, lock,
+ * enabled flag, password) bump the version on the user and evict the entry
+ * here once their transaction commits, so this node sees the change
+ * immediately and other nodes within the TTL.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // Cached marker for users that are missing, disabled or locked
+    private static final Long INACTIVE = -1L;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${mho.app.tokenVersionCacheTtlMs:30000}")
+    private long ttlMs;
+
+    private BoundedTtlCache<String, Long> versions;
+
+    @PostConstruct
+    void init() {
+        versions = new BoundedTtlCache<>(10_000, ttlMs);
+    }
+
+    public boolean isCurrent(String username, long tokenVersion) {
+        Long version = versions.get(username,
+                () -> userRepository.findActiveTokenVersion(username).orElse(INACTIVE));
+        return !INACTIVE.equals(version) && version == tokenVersion;
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            versions.invalidate(username);
+        }
+    }
+
+    public void clear() {
+        versions.clear();
+    }
+}
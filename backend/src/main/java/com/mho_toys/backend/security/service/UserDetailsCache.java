@@ -0,0 +1,75 @@
+package com.mho_toys.backend.security.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.mho_toys.backend.utils.BoundedTtlCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Principals loaded by UserDetailsServiceImpl, keyed by username.
+ *
+ * Kept separate from the service because SecurityConfig creates its own
+ * UserDetailsServiceImpl instance; both must share one cache. Entries are
+ * evicted by UserServiceImpl whenever a write changes what the principal
+ * grants, and expire after a short TTL as a backstop for writes made by
+ * other nodes.
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final String CACHE_NAME = "userDetails";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${mho.app.userDetailsCache.maxSize:10000}")
+    private int maxSize;
+
+    @Value("${mho.app.userDetailsCache.ttlMs:60000}")
+    private long ttlMs;
+
+    private BoundedTtlCache<String, UserDetails> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new BoundedTtlCache<>(maxSize, ttlMs);
+
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::hitCount)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", cache, BoundedTtlCache::missCount)
+                .tag("cache", CACHE_NAME)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", cache, BoundedTtlCache::evictionCount)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", cache, BoundedTtlCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public UserDetails get(String username, Supplier<UserDetails> loader) {
+        return cache.get(username, loader);
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+}
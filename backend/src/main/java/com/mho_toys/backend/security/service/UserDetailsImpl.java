@@ -10,6 +10,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.mho_toys.backend.model.User;
+import com.mho_toys.backend.security.jwt.JwtTokenClaims;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -34,6 +35,9 @@ public class UserDetailsImpl implements UserDetails {
     private boolean enabled;
     private boolean is2faEnabled;
 
+    // Version the principal was loaded at; copied into issued tokens
+    private long tokenVersion;
+
     private Collection<? extends GrantedAuthority> authorities;
 
     public static UserDetailsImpl build(User user) {
@@ -49,14 +53,41 @@ public class UserDetailsImpl implements UserDetails {
                 user.getEmail(),
                 user.getPassword(),
                 user.isAccountNonExpired(),
-                user.isAccountNonLocked(),
+                // Reported as locked as soon as the threshold is reached, even if the lock is not persisted yet
+                user.isAccountNonLocked() && !user.isAccountLockedDueToFailedAttempts(),
                 user.isCredentialsNonExpired(),
                 user.isEnabled(),
                 user.isTwoFactorEnabled(),
+                user.getTokenVersion(),
                 List.of(authority)
         );
     }
 
+    /**
+     * Principal rebuilt from a verified token without touching the database.
+     * Only valid once the token version has been checked as current, which
+     * guarantees the account was not locked, disabled or changed since issue.
+     */
+    public static UserDetailsImpl fromClaims(JwtTokenClaims claims) {
+        if (claims == null || !claims.hasPrincipalClaims()) {
+            throw new IllegalArgumentException("Token does not carry principal claims");
+        }
+
+        return new UserDetailsImpl(
+                claims.userId(),
+                claims.subject(),
+                null,
+                null,
+                true,
+                true,
+                true,
+                true,
+                false,
+                claims.tokenVersion(),
+                List.of(new SimpleGrantedAuthority(claims.role()))
+        );
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
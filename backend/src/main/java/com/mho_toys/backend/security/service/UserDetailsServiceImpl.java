@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -11,19 +12,49 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.mho_toys.backend.model.User;
 import com.mho_toys.backend.repository.UserRepository;
-
-
+import com.mho_toys.backend.utils.AfterCommit;
+
+/**
+ * Principal lookups. These are pure reads: an account that has reached the
+ * failed-attempt threshold is reported as locked by UserDetailsImpl.build,
+ * and the lock itself is persisted by UserServiceImpl when the failure is
+ * recorded, so authenticating a request never writes.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    // Not transactional: a cache hit must not open a transaction or borrow a connection.
+    // On a miss the repository query runs in Spring Data's read-only transaction.
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, () -> loadUserFromDatabase(username));
+    }
+
+    /**
+     * Called by DaoAuthenticationProvider after a successful sign-in whose
+     * stored hash no longer matches the configured encoding. Only the hash
+     * changes, so outstanding tokens stay valid.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        AfterCommit.run(() -> userDetailsCache.evict(user.getUsername()));
+        logger.info("Password hash upgraded for user: {}", user.getUsername());
+
+        // The returned principal is only used to build the token; the old hash on it is never checked again
+        return user;
+    }
+
+    private UserDetails loadUserFromDatabase(String username) {
         logger.debug("Loading user details for username: {}", username);
         
         try {
@@ -36,13 +67,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             logger.debug("User found: {}, Enabled: {}, Account Non Locked: {}", 
                         username, user.isEnabled(), user.isAccountNonLocked());
 
-            // Check if account is locked due to failed login attempts
-            if (user.isAccountLockedDueToFailedAttempts()) {
-                logger.warn("Account locked due to failed login attempts for user: {}", username);
-                user.lockAccount();
-                userRepository.save(user);
-            }
-
             return UserDetailsImpl.build(user);
         } catch (Exception e) {
             logger.error("Error loading user by username {}: {}", username, e.getMessage());
@@ -51,7 +75,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
 
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByEmail(String email) throws UsernameNotFoundException {
         logger.debug("Loading user details for email: {}", email);
         
@@ -63,17 +87,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         logger.debug("User found by email: {}, Username: {}", email, user.getUserName());
 
-        // Check if account is locked due to failed login attempts
-        if (user.isAccountLockedDueToFailedAttempts()) {
-            logger.warn("Account locked due to failed login attempts for user: {}", user.getUserName());
-            user.lockAccount();
-            userRepository.save(user);
-        }
-
         return UserDetailsImpl.build(user);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsernameOrEmail(String usernameOrEmail) throws UsernameNotFoundException {
         logger.debug("Loading user details for username or email: {}", usernameOrEmail);
         
@@ -87,12 +104,6 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     user.getUserName(), 
                     usernameOrEmail.equals(user.getUserName()) ? "username" : "email");
 
-        if (user.isAccountLockedDueToFailedAttempts()) {
-            logger.warn("Account locked due to failed login attempts for user: {}", user.getUserName());
-            user.lockAccount();
-            userRepository.save(user);
-        }
-
         return UserDetailsImpl.build(user);
     }
 } 
\ No newline at end of file
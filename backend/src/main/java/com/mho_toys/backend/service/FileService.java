@@ -7,5 +7,17 @@ import java.io.IOException;
 public interface FileService {
 
 
+    /**
+     * Stores the image under its content digest and takes one reference on
+     * it. Returns the stored file name.
+     */
     String uploadImage(String path, MultipartFile file) throws IOException;
+
+    /**
+     * Takes one more reference on an already stored image. Returns false if
+     * the name is not a stored image.
+     */
+    boolean retainImage(String fileName);
+
+    void releaseImage(String fileName);
 }
@@ -6,12 +6,23 @@ import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.mho_toys.backend.catalog.ProductCatalogSnapshot;
 import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.dto.ProductFilterResultDTO;
+import com.mho_toys.backend.dto.ProductPageDTO;
+import com.mho_toys.backend.dto.ProductSortOrder;
+import com.mho_toys.backend.dto.ProductSuggestionDTO;
 
 @Service
 public interface ProductService {
 
     List<ProductDTO> getAllToys();
+    ProductCatalogSnapshot getCatalogSnapshot();
+    ProductPageDTO getToysPage(String cursor, int size, ProductSortOrder sort);
+    ProductFilterResultDTO filterToys(String ageBucket, String priceBand, Double minPrice, Double maxPrice,
+                                      String cursor, int size);
+    List<ProductDTO> searchToys(String query, int limit);
+    List<ProductSuggestionDTO> suggestToyNames(String prefix, int limit);
     ProductDTO getProductById(Long productId);
     ProductDTO addProduct(ProductDTO product);
     ProductDTO updateProduct(Long productId, ProductDTO productDTO);
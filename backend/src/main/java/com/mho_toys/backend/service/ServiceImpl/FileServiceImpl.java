@@ -1,21 +1,46 @@
 package com.mho_toys.backend.service.ServiceImpl;
 
 
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
 import java.util.Set;
 import java.util.UUID;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.mho_toys.backend.repository.ImageBlobRepository;
 import com.mho_toys.backend.service.FileService;
-
+import com.mho_toys.backend.storage.ImageVariantGenerator;
+import com.mho_toys.backend.utils.ImageSignatures;
+
+/**
+ * Content-addressed image storage.
+ *
+ * Files are named by the SHA-256 digest of their bytes, computed in one read
+ * of the spooled upload, so uploading content that is already stored costs
+ * no write and no extra disk. Each stored file has a row in image_blobs
+ * counting the products that reference it.
+ */
 @Service
 public class FileServiceImpl implements FileService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileServiceImpl.class);
+
     private static final Set<String> ALLOWED_IMAGE_TYPES = Set.of(
         "image/jpeg", "image/png", "image/gif", "image/webp"
     );
@@ -26,7 +51,17 @@ public class FileServiceImpl implements FileService {
     
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
 
+    private static final int HEADER_SIZE = 8;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
+
     @Override
+    @Transactional
     public String uploadImage(String path, MultipartFile file) throws IOException {
         // Validate file
         validateImageFile(file);
@@ -42,24 +77,89 @@ public class FileServiceImpl implements FileService {
             throw new IllegalArgumentException("File type not allowed. Only JPG, PNG, GIF, and WebP images are supported.");
         }
 
-        // Generate secure filename
-        String randomId = UUID.randomUUID().toString();
-        String fileName = randomId + fileExtension;
-        String filePath = path + File.separator + fileName;
-        
         // Create directory if it doesn't exist
-        File folder = new File(path);
-        if (!folder.exists()) {
-            folder.mkdirs();
+        Path folder = Paths.get(path);
+        Files.createDirectories(folder);
+
+        MessageDigest digest = sha256();
+        long size = digestPart(file, digest);
+
+        // Named by content, so the same image always maps to the same file
+        String fileName = HexFormat.of().formatHex(digest.digest()) + canonicalExtension(fileExtension);
+        Path destination = folder.resolve(fileName);
+
+        if (Files.exists(destination)) {
+            logger.debug("Image {} already stored, skipping write", fileName);
+            // Restarts the orphan sweeper's grace period for a file that may have been unreferenced
+            Files.setLastModifiedTime(destination, FileTime.from(Instant.now()));
+        } else {
+            moveIntoPlace(file, folder, destination);
         }
+        imageBlobRepository.acquire(fileName, size);
+        // Only writes the variants that are missing, so a deduplicated upload costs a few stats
+        imageVariantGenerator.generateAsync(fileName);
+        return fileName;
+    }
 
-        // Additional security: validate file content
-        validateImageContent(file);
+    @Override
+    @Transactional
+    public boolean retainImage(String fileName) {
+        return imageBlobRepository.retain(fileName) > 0;
+    }
 
-        // Save file
-        Files.copy(file.getInputStream(), Paths.get(filePath));
+    @Override
+    @Transactional
+    public void releaseImage(String fileName) {
+        imageBlobRepository.release(fileName);
+    }
 
-        return fileName;
+    /**
+     * Single read of the part the container already spooled to disk: the
+     * signature is checked on the first bytes and the rest only feeds the
+     * digest, enforcing the size cap as bytes arrive. Nothing is written.
+     */
+    private long digestPart(MultipartFile file, MessageDigest digest) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            // Additional security: validate file content
+            byte[] header = in.readNBytes(HEADER_SIZE);
+            if (!ImageSignatures.isValidImageHeader(header)) {
+                throw new IllegalArgumentException("File content does not match expected image format");
+            }
+            digest.update(header);
+            long read = header.length;
+
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                read += n;
+                // The declared size can lie; the cap is enforced on the bytes actually received
+                if (read > MAX_FILE_SIZE) {
+                    throw new IllegalArgumentException("File size exceeds maximum allowed size of 5MB");
+                }
+                digest.update(buffer, 0, n);
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Hands the spooled part to the container, which renames it when the
+     * upload directory is on the same filesystem, then publishes it under its
+     * content name atomically so readers never see a partial file.
+     */
+    private void moveIntoPlace(MultipartFile file, Path folder, Path destination) throws IOException {
+        Path tempFile = folder.resolve("upload-" + UUID.randomUUID() + ".tmp").toAbsolutePath();
+        try {
+            file.transferTo(tempFile.toFile());
+            try {
+                // A concurrent upload of the same content may win the race; replacing identical bytes is harmless
+                Files.move(tempFile, destination, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, destination, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
     }
 
     private void validateImageFile(MultipartFile file) {
@@ -77,65 +177,25 @@ public class FileServiceImpl implements FileService {
         }
     }
 
-    private String getFileExtension(String fileName) {
-        int lastDotIndex = fileName.lastIndexOf('.');
-        if (lastDotIndex == -1) {
-            throw new IllegalArgumentException("File must have an extension");
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return fileName.substring(lastDotIndex);
     }
 
-    private void validateImageContent(MultipartFile file) throws IOException {
-        // Read first few bytes to validate file signature
-        byte[] header = new byte[8];
-        file.getInputStream().read(header);
-        
-        // Check for common image file signatures
-        if (!isValidImageHeader(header)) {
-            throw new IllegalArgumentException("File content does not match expected image format");
-        }
+    // .JPG, .jpeg and .jpg of the same bytes should dedupe to one file
+    private static String canonicalExtension(String extension) {
+        String lower = extension.toLowerCase();
+        return ".jpeg".equals(lower) ? ".jpg" : lower;
     }
 
-    private boolean isValidImageHeader(byte[] header) {
-        // JPEG signature: FF D8 FF
-        if (header.length >= 3 && 
-            (header[0] & 0xFF) == 0xFF && 
-            (header[1] & 0xFF) == 0xD8 && 
-            (header[2] & 0xFF) == 0xFF) {
-            return true;
-        }
-
-        // PNG signature: 89 50 4E 47 0D 0A 1A 0A
-        if (header.length >= 8 &&
-            (header[0] & 0xFF) == 0x89 &&
-            (header[1] & 0xFF) == 0x50 &&
-            (header[2] & 0xFF) == 0x4E &&
-            (header[3] & 0xFF) == 0x47 &&
-            (header[4] & 0xFF) == 0x0D &&
-            (header[5] & 0xFF) == 0x0A &&
-            (header[6] & 0xFF) == 0x1A &&
-            (header[7] & 0xFF) == 0x0A) {
-            return true;
-        }
-
-        // GIF signature: 47 49 46 38 (GIF8)
-        if (header.length >= 4 &&
-            (header[0] & 0xFF) == 0x47 &&
-            (header[1] & 0xFF) == 0x49 &&
-            (header[2] & 0xFF) == 0x46 &&
-            (header[3] & 0xFF) == 0x38) {
-            return true;
-        }
-
-        // WebP signature: 52 49 46 46 (RIFF) followed by WebP
-        if (header.length >= 4 &&
-            (header[0] & 0xFF) == 0x52 &&
-            (header[1] & 0xFF) == 0x49 &&
-            (header[2] & 0xFF) == 0x46 &&
-            (header[3] & 0xFF) == 0x46) {
-            return true;
+    private String getFileExtension(String fileName) {
+        int lastDotIndex = fileName.lastIndexOf('.');
+        if (lastDotIndex == -1) {
+            throw new IllegalArgumentException("File must have an extension");
         }
-
-        return false;
+        return fileName.substring(lastDotIndex);
     }
 }
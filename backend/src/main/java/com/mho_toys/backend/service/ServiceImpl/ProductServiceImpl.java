@@ -1,33 +1,77 @@
 package com.mho_toys.backend.service.ServiceImpl;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.mho_toys.backend.catalog.AgeBucket;
+import com.mho_toys.backend.catalog.PriceBand;
+import com.mho_toys.backend.catalog.ProductCatalogCache;
+import com.mho_toys.backend.catalog.ProductCatalogChangedEvent;
+import com.mho_toys.backend.catalog.ProductCatalogSnapshot;
+import com.mho_toys.backend.catalog.ProductNameAutocomplete;
+import com.mho_toys.backend.catalog.ProductSearchIndex;
+import com.mho_toys.backend.catalog.ProductCatalogChangedEvent.ChangeType;
 import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.dto.ProductFilterResultDTO;
+import com.mho_toys.backend.dto.ProductPageDTO;
+import com.mho_toys.backend.dto.ProductSortOrder;
+import com.mho_toys.backend.dto.ProductSuggestionDTO;
 import com.mho_toys.backend.exceptions.ResourceNotFoundException;
+import com.mho_toys.backend.mapper.ProductMapper;
 import com.mho_toys.backend.model.Product;
+import com.mho_toys.backend.repository.ProductFacetCounts;
 import com.mho_toys.backend.repository.ProductRepository;
+import com.mho_toys.backend.repository.ProductSpecifications;
 import com.mho_toys.backend.service.FileService;
 import com.mho_toys.backend.service.ProductService;
+import com.mho_toys.backend.utils.ProductPageCursor;
 
 @Service
 public class ProductServiceImpl implements ProductService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int MAX_SUGGESTIONS = 20;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private ProductMapper productMapper;
 
     @Autowired
     private FileService fileService;
+
+    @Autowired
+    private ProductCatalogCache catalogCache;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private ProductNameAutocomplete nameAutocomplete;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @Value("${project.image}")
     private String path;
@@ -37,32 +81,158 @@ public class ProductServiceImpl implements ProductService {
 
     @Override
     public List<ProductDTO> getAllToys() {
-        List<Product> products = productRepository.findAll();
-        return products.stream()
-                .map(product -> modelMapper.map(product, ProductDTO.class))
+        return catalogCache.getProducts();
+    }
+
+    @Override
+    public ProductCatalogSnapshot getCatalogSnapshot() {
+        return catalogCache.getSnapshot();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductPageDTO getToysPage(String cursor, int size, ProductSortOrder sort) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ProductPageCursor after = (cursor == null || cursor.isBlank())
+                ? null
+                : ProductPageCursor.decode(cursor, sort);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        List<Product> rows = findPage(sort, after, PageRequest.of(0, pageSize + 1));
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = rows.get(rows.size() - 1);
+            nextCursor = ProductPageCursor.of(sort, last.getPrice(), last.getProductId()).encode();
+        }
+
+        List<ProductDTO> items = rows.stream()
+                .map(productMapper::toDto)
+                .collect(Collectors.toList());
+        return new ProductPageDTO(items, sort, pageSize, nextCursor, hasNext);
+    }
+
+    private List<Product> findPage(ProductSortOrder sort, ProductPageCursor after, Pageable limit) {
+        switch (sort) {
+            case ID_DESC:
+                return after == null
+                        ? productRepository.findAllByOrderByProductIdDesc(limit)
+                        : productRepository.findPageBeforeId(after.getProductId(), limit);
+            case PRICE_ASC:
+                return after == null
+                        ? productRepository.findAllByOrderByPriceAscProductIdAsc(limit)
+                        : productRepository.findPageAfterPrice(after.getPrice(), after.getProductId(), limit);
+            case PRICE_DESC:
+                return after == null
+                        ? productRepository.findAllByOrderByPriceDescProductIdDesc(limit)
+                        : productRepository.findPageBeforePrice(after.getPrice(), after.getProductId(), limit);
+            case ID_ASC:
+            default:
+                return after == null
+                        ? productRepository.findAllByOrderByProductIdAsc(limit)
+                        : productRepository.findPageAfterId(after.getProductId(), limit);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFilterResultDTO filterToys(String ageBucket, String priceBand, Double minPrice, Double maxPrice,
+                                             String cursor, int size) {
+        AgeBucket age = AgeBucket.fromParam(ageBucket);
+        PriceBand band = PriceBand.fromParam(priceBand);
+        if (band != null && (minPrice != null || maxPrice != null)) {
+            throw new IllegalArgumentException("priceBand cannot be combined with minPrice or maxPrice");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        ProductPageCursor after = (cursor == null || cursor.isBlank())
+                ? null
+                : ProductPageCursor.decode(cursor, ProductSortOrder.ID_ASC);
+
+        Double lowerPrice = band != null ? Double.valueOf(band.getMinPrice()) : minPrice;
+        Double upperPrice = band != null ? Double.valueOf(band.getMaxPrice()) : maxPrice;
+
+        Specification<Product> filter = Specification.allOf(
+                ProductSpecifications.priceAtLeast(lowerPrice),
+                ProductSpecifications.priceBelow(upperPrice),
+                ProductSpecifications.ageOverlaps(
+                        age != null ? age.getMinMonths() : null,
+                        age != null ? age.getMaxMonths() : null));
+
+        // Total and facets cover every match but come from one aggregate query, no rows are loaded
+        ProductFacetCounts counts = productRepository.countFacets(filter);
+        Map<String, Long> ageFacets = new LinkedHashMap<>();
+        counts.ageBuckets().forEach((bucket, count) -> ageFacets.put(bucket.name(), count));
+        Map<String, Long> priceFacets = new LinkedHashMap<>();
+        counts.priceBands().forEach((priceFacet, count) -> priceFacets.put(priceFacet.name(), count));
+
+        // Seek to the page in SQL; one extra row tells whether another page exists without a COUNT
+        Specification<Product> pageFilter = filter.and(
+                ProductSpecifications.idAfter(after != null ? after.getProductId() : null));
+        List<Product> page = productRepository.findBy(pageFilter,
+                query -> query.sortBy(Sort.by("productId")).limit(pageSize + 1).all());
+        boolean hasNext = page.size() > pageSize;
+        if (hasNext) {
+            page = page.subList(0, pageSize);
+        }
+        String nextCursor = hasNext
+                ? ProductPageCursor.of(ProductSortOrder.ID_ASC, null, page.get(page.size() - 1).getProductId()).encode()
+                : null;
+
+        List<ProductDTO> items = page.stream()
+                .map(productMapper::toDto)
                 .collect(Collectors.toList());
+        return new ProductFilterResultDTO(items, counts.total(), nextCursor, hasNext, ageFacets, priceFacets);
+    }
+
+    @Override
+    public List<ProductDTO> searchToys(String query, int limit) {
+        return searchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    @Override
+    public List<ProductSuggestionDTO> suggestToyNames(String prefix, int limit) {
+        return nameAutocomplete.suggest(prefix, Math.min(limit, MAX_SUGGESTIONS));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillAgeMonths() {
+        List<Product> pending = productRepository.findByAgeMinMonthsIsNullAndAgeRangeIsNotNull();
+        if (pending.isEmpty()) {
+            return;
+        }
+        pending.forEach(Product::syncAgeMonths);
+        productRepository.saveAll(pending);
+        logger.info("Backfilled age filter columns for {} products", pending.size());
     }
 
     @Override
     public ProductDTO getProductById(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
-        return modelMapper.map(product, ProductDTO.class);
+        return productMapper.toDto(product);
     }
 
     @Override
+    @Transactional
     public ProductDTO addProduct(ProductDTO product) {
-        Product productFromDB = modelMapper.map(product, Product.class);
+        Product productFromDB = productMapper.toEntity(product);
 
         if(productRepository.existsByName(productFromDB.getName())) {
             throw new RuntimeException("Product with the same name already exists");
         }
 
         Product savedProduct = productRepository.save(productFromDB);
-        return modelMapper.map(savedProduct, ProductDTO.class);
+        retainStoredImage(savedProduct.getImageUrl());
+        return publishChange(ChangeType.ADDED, savedProduct);
     }
 
     @Override
+    @Transactional
     public ProductDTO updateProduct(Long productId, ProductDTO productDTO) {
         Product existingProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
@@ -85,33 +255,69 @@ public class ProductServiceImpl implements ProductService {
         if (productDTO.getAgeRange() != null) {
             existingProduct.setAgeRange(productDTO.getAgeRange());
         }
-        if (productDTO.getImageUrl() != null) {
+        if (productDTO.getImageUrl() != null && !productDTO.getImageUrl().equals(existingProduct.getImageUrl())) {
+            retainStoredImage(productDTO.getImageUrl());
+            releaseStoredImage(existingProduct.getImageUrl());
             existingProduct.setImageUrl(productDTO.getImageUrl());
         }
 
         Product updatedProduct = productRepository.save(existingProduct);
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        return publishChange(ChangeType.UPDATED, updatedProduct);
     }
 
     @Override
+    @Transactional
     public ProductDTO deleteProduct(Long productId) {
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
         productRepository.delete(product);
-        return modelMapper.map(product, ProductDTO.class);
+        releaseStoredImage(product.getImageUrl());
+        return publishChange(ChangeType.DELETED, product);
     }
 
     @Override
+    @Transactional
     public ProductDTO updateProductImage(Long productId, MultipartFile image) throws IOException {
         Product dbProduct = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product", "productId", productId));
 
         String fileName = fileService.uploadImage(path, image);
+        releaseStoredImage(dbProduct.getImageUrl());
         dbProduct.setImageUrl(imageBaseUrl + "/" + fileName);
         Product updatedProduct = productRepository.save(dbProduct);
 
-        return modelMapper.map(updatedProduct, ProductDTO.class);
+        return publishChange(ChangeType.UPDATED, updatedProduct);
+    }
+
+    // Reference counts only apply to images we store; external URLs are left alone
+    private String storedImageName(String imageUrl) {
+        String prefix = imageBaseUrl + "/";
+        if (imageUrl == null || !imageUrl.startsWith(prefix)) {
+            return null;
+        }
+        return imageUrl.substring(prefix.length());
+    }
+
+    private void retainStoredImage(String imageUrl) {
+        String fileName = storedImageName(imageUrl);
+        if (fileName != null) {
+            fileService.retainImage(fileName);
+        }
+    }
+
+    private void releaseStoredImage(String imageUrl) {
+        String fileName = storedImageName(imageUrl);
+        if (fileName != null) {
+            fileService.releaseImage(fileName);
+        }
+    }
+
+    private ProductDTO publishChange(ChangeType changeType, Product product) {
+        ProductDTO productDTO = productMapper.toDto(product);
+        // Delivered after commit, so the catalog snapshot never sees a rolled-back write
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(changeType, productDTO));
+        return productDTO;
     }
 }
 
@@ -2,18 +2,24 @@ package com.mho_toys.backend.service.ServiceImpl;
 
 import com.mho_toys.backend.dto.UserDTO;
 import com.mho_toys.backend.exceptions.ResourceNotFoundException;
+import com.mho_toys.backend.mapper.UserMapper;
 import com.mho_toys.backend.model.ApplicationRole;
 import com.mho_toys.backend.model.Role;
 import com.mho_toys.backend.model.User;
 import com.mho_toys.backend.repository.RoleRepository;
 import com.mho_toys.backend.repository.UserRepository;
+import com.mho_toys.backend.security.service.LoginEventBuffer;
+import com.mho_toys.backend.security.service.TokenVersionRegistry;
+import com.mho_toys.backend.security.service.UserDetailsCache;
 import com.mho_toys.backend.service.UserService;
+import com.mho_toys.backend.utils.AfterCommit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
@@ -38,6 +44,18 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private LoginEventBuffer loginEventBuffer;
+
     @Override
     public List<User> getAllUsers() {
         logger.debug("Retrieving all users");
@@ -86,7 +104,9 @@ public class UserServiceImpl implements UserService {
         
         user.setRole(role);
         user.setUpdatedBy("SYSTEM"); 
+        user.rotateTokenVersion();
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.info("Role updated for user {} to {}", user.getUserName(), roleName);
     }
@@ -102,7 +122,10 @@ public class UserServiceImpl implements UserService {
             if (userRepository.existsByUserName(userDTO.getUserName())) {
                 throw new RuntimeException("Username already exists: " + userDTO.getUserName());
             }
+            // Tokens carry the username as subject, so outstanding ones must not survive a rename
+            evictCachedUser(existingUser.getUserName());
             existingUser.setUserName(userDTO.getUserName());
+            existingUser.rotateTokenVersion();
         }
         
         if (userDTO.getEmail() != null && !userDTO.getEmail().equals(existingUser.getEmail())) {
@@ -127,6 +150,7 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         
         userRepository.delete(user);
+        evictCachedUser(user.getUserName());
         logger.info("User deleted: {}", user.getUserName());
     }
 
@@ -139,6 +163,7 @@ public class UserServiceImpl implements UserService {
         
         user.setEnabled(true);
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.info("User enabled: {}", user.getUserName());
     }
@@ -151,7 +176,9 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         
         user.setEnabled(false);
+        user.rotateTokenVersion();
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.info("User disabled: {}", user.getUserName());
     }
@@ -164,7 +191,9 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
         
         user.lockAccount();
+        user.rotateTokenVersion();
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.warn("Account locked for user: {}", user.getUserName());
     }
@@ -178,6 +207,7 @@ public class UserServiceImpl implements UserService {
         
         user.unlockAccount();
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.info("Account unlocked for user: {}", user.getUserName());
     }
@@ -186,18 +216,17 @@ public class UserServiceImpl implements UserService {
     public void incrementFailedLoginAttempts(String username) {
         logger.debug("Incrementing failed login attempts for user: {}", username);
         
-        Optional<User> userOpt = userRepository.findByUserName(username);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.incrementFailedLoginAttempts();
-            
-            if (user.getFailedLoginAttempts() >= MAX_FAILED_ATTEMPTS) {
-                user.lockAccount();
+        // A buffered success would otherwise reset the counter after this failure
+        loginEventBuffer.flushUser(username);
+
+        // One atomic statement: increments, and locks on reaching the threshold
+        Optional<Integer> attempts = userRepository.incrementFailedLoginAttempts(username, MAX_FAILED_ATTEMPTS, Instant.now());
+        if (attempts.isPresent() && attempts.get() >= MAX_FAILED_ATTEMPTS) {
+            evictCachedUser(username);
+            if (attempts.get() == MAX_FAILED_ATTEMPTS) {
                 logger.warn("Account locked due to {} failed login attempts for user: {}", 
                            MAX_FAILED_ATTEMPTS, username);
             }
-            
-            userRepository.save(user);
         }
     }
 
@@ -205,12 +234,7 @@ public class UserServiceImpl implements UserService {
     public void resetFailedLoginAttempts(String username) {
         logger.debug("Resetting failed login attempts for user: {}", username);
         
-        Optional<User> userOpt = userRepository.findByUserName(username);
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            user.resetFailedLoginAttempts();
-            userRepository.save(user);
-        }
+        userRepository.resetFailedLoginAttempts(username);
     }
 
     @Override
@@ -225,6 +249,13 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    // Buffered and written in batches; no transaction or connection is needed here
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void recordSuccessfulLogin(String username) {
+        loginEventBuffer.recordSuccess(username);
+    }
+
     @Override
     public boolean isAccountLocked(String username) {
         Optional<User> userOpt = userRepository.findByUserName(username);
@@ -244,7 +275,9 @@ public class UserServiceImpl implements UserService {
         
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setCredentialsExpiryDate(LocalDate.now().plusYears(1)); // Reset password expiry
+        user.rotateTokenVersion();
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.info("Password changed for user: {}", user.getUserName());
     }
@@ -308,6 +341,7 @@ public class UserServiceImpl implements UserService {
         user.setTwoFactorSecret(secret);
         user.setTwoFactorEnabled(true);
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.info("2FA enabled for user: {}", user.getUserName());
     }
@@ -322,6 +356,7 @@ public class UserServiceImpl implements UserService {
         user.setTwoFactorSecret(null);
         user.setTwoFactorEnabled(false);
         userRepository.save(user);
+        evictCachedUser(user.getUserName());
         
         logger.info("2FA disabled for user: {}", user.getUserName());
     }
@@ -361,6 +396,7 @@ public class UserServiceImpl implements UserService {
     public void unlockAllAccounts() {
         logger.info("Unlocking all accounts - administrative action");
         userRepository.unlockAllAccounts();
+        clearCachedUsers();
     }
 
     @Override
@@ -368,58 +404,35 @@ public class UserServiceImpl implements UserService {
     public void resetAllFailedLoginAttempts() {
         logger.info("Resetting all failed login attempts - administrative action");
         userRepository.resetAllFailedLoginAttempts();
+        clearCachedUsers();
+    }
+
+    /**
+     * Drops the user's cached principal and token version once the current
+     * transaction commits. Evicting earlier would let a concurrent request
+     * reload the old row and cache it again.
+     */
+    private void evictCachedUser(String username) {
+        AfterCommit.run(() -> {
+            userDetailsCache.evict(username);
+            tokenVersionRegistry.evict(username);
+        });
+    }
+
+    private void clearCachedUsers() {
+        AfterCommit.run(() -> {
+            userDetailsCache.clear();
+            tokenVersionRegistry.clear();
+        });
     }
 
     @Override
     public UserDTO convertToDto(User user) {
-        if (user == null) return null;
-        
-        return new UserDTO(
-                user.getUserId(),
-                user.getUserName(),
-                user.getEmail(),
-                user.isAccountNonLocked(),
-                user.isAccountNonExpired(),
-                user.isCredentialsNonExpired(),
-                user.isEnabled(),
-                user.getCredentialsExpiryDate(),
-                user.getAccountExpiryDate(),
-                user.getTwoFactorSecret(),
-                user.isTwoFactorEnabled(),
-                user.getSignUpMethod(),
-                user.getRole(),
-                user.getCreatedDate(),
-                user.getUpdatedDate(),
-                user.getFailedLoginAttempts(),
-                user.getLastLoginDate(),
-                user.getAccountLockedDate()
-        );
+        return userMapper.toDto(user);
     }
 
     @Override
     public User convertToEntity(UserDTO userDTO) {
-        if (userDTO == null) return null;
-        
-        User user = new User();
-        user.setUserId(userDTO.getUserId());
-        user.setUserName(userDTO.getUserName());
-        user.setEmail(userDTO.getEmail());
-        user.setAccountNonLocked(userDTO.isAccountNonLocked());
-        user.setAccountNonExpired(userDTO.isAccountNonExpired());
-        user.setCredentialsNonExpired(userDTO.isCredentialsNonExpired());
-        user.setEnabled(userDTO.isEnabled());
-        user.setCredentialsExpiryDate(userDTO.getCredentialsExpiryDate());
-        user.setAccountExpiryDate(userDTO.getAccountExpiryDate());
-        user.setTwoFactorSecret(userDTO.getTwoFactorSecret());
-        user.setTwoFactorEnabled(userDTO.isTwoFactorEnabled());
-        user.setSignUpMethod(userDTO.getSignUpMethod());
-        user.setRole(userDTO.getRole());
-        user.setCreatedDate(userDTO.getCreatedDate());
-        user.setUpdatedDate(userDTO.getUpdatedDate());
-        user.setFailedLoginAttempts(userDTO.getFailedLoginAttempts());
-        user.setLastLoginDate(userDTO.getLastLoginDate());
-        user.setAccountLockedDate(userDTO.getAccountLockedDate());
-        
-        return user;
+        return userMapper.toEntity(userDTO);
     }
 } 
\ No newline at end of file
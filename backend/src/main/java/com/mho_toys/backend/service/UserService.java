@@ -29,6 +29,7 @@ public interface UserService {
     void incrementFailedLoginAttempts(String username);
     void resetFailedLoginAttempts(String username);
     void updateLastLogin(String username);
+    void recordSuccessfulLogin(String username);
     boolean isAccountLocked(String username);
     
     void changePassword(Long userId, String currentPassword, String newPassword);
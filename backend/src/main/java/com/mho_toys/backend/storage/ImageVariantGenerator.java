@@ -0,0 +1,366 @@
+package com.mho_toys.backend.storage;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.mho_toys.backend.utils.ImageResizer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates fixed-width copies of uploaded images for listing pages.
+ *
+ * Work runs on a small dedicated pool with a bounded queue, so a burst of
+ * uploads can delay variants but never grows memory or takes request
+ * threads; a full queue drops the job and the product keeps serving the
+ * original. Variants sit next to the original as "<digest>-w<width>.<ext>",
+ * JPEG for JPEG sources and PNG otherwise. Sources the JDK cannot decode
+ * (WebP) or that are already narrower than a width are skipped.
+ *
+ * Which variants exist is kept in an in-memory index, filled by one
+ * directory scan at startup and updated as generation finishes, so the
+ * product mapper never touches the disk.
+ */
+@Component
+public class ImageVariantGenerator implements ImageVariantLookup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantGenerator.class);
+
+    // Decoded size is width * height * 4 bytes. Sources are subsampled on read to at
+    // most twice the largest variant width; anything still above this (extreme aspect
+    // ratios) is refused, so a worker never holds more than about 32MB of pixels
+    private static final long MAX_DECODED_PIXELS = 8_000_000L;
+    private static final Pattern VARIANT_NAME = Pattern.compile("^(.+)-w(\\d+)\\.(jpg|png)$");
+    private static final float JPEG_QUALITY = 0.82f;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${project.image}")
+    private String path;
+
+    @Value("${image.base.url}")
+    private String imageBaseUrl;
+
+    @Value("${mho.app.imageVariants.widths:240,480,960}")
+    private List<Integer> widths;
+
+    @Value("${mho.app.imageVariants.threads:2}")
+    private int threads;
+
+    @Value("${mho.app.imageVariants.queueCapacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    // original file name -> width -> variant URL; only images that have variants
+    private final Map<String, Map<Integer, String>> existingVariants = new ConcurrentHashMap<>();
+
+    private Timer generateTimer;
+    private Counter rejections;
+
+    @PostConstruct
+    void init() {
+        widths = widths.stream().sorted().distinct().toList();
+        executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new VariantThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        indexExistingVariants();
+
+        generateTimer = Timer.builder("images.variants.generate")
+                .description("Time to decode an upload and write all of its variants")
+                .register(meterRegistry);
+        rejections = Counter.builder("images.variants.rejected")
+                .description("Variant jobs dropped because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("images.variants.queue.size", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues variant generation for a stored image and returns immediately.
+     */
+    public void generateAsync(String fileName) {
+        try {
+            executor.execute(() -> generate(fileName));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            logger.warn("Variant queue full, skipping variants for {}", fileName);
+        }
+    }
+
+    @Override
+    public Map<Integer, String> variantUrls(String imageUrl) {
+        String prefix = imageBaseUrl + "/";
+        if (imageUrl == null || !imageUrl.startsWith(prefix)) {
+            return Collections.emptyMap();
+        }
+        return existingVariants.getOrDefault(imageUrl.substring(prefix.length()), Collections.emptyMap());
+    }
+
+    /**
+     * Updates the index for a deleted file: a deleted original loses its
+     * entry, a deleted variant is dropped from its original's entry so it is
+     * neither served nor skipped when the variants are generated again.
+     */
+    public void forget(String fileName) {
+        existingVariants.remove(fileName);
+        Matcher variant = VARIANT_NAME.matcher(fileName);
+        if (!variant.matches()) {
+            return;
+        }
+        int width = Integer.parseInt(variant.group(2));
+        for (String original : originalNames(variant.group(1), variant.group(3))) {
+            existingVariants.computeIfPresent(original, (key, urls) -> {
+                Map<Integer, String> remaining = new TreeMap<>(urls);
+                remaining.remove(width);
+                return remaining.isEmpty() ? null : Collections.unmodifiableMap(remaining);
+            });
+        }
+    }
+
+    /**
+     * Every name a variant of fileName could have, whether or not it exists.
+     */
+    public List<String> variantFileNames(String fileName) {
+        List<String> names = new ArrayList<>(widths.size());
+        for (int width : widths) {
+            names.add(variantFileName(fileName, width));
+        }
+        return names;
+    }
+
+    private void generate(String fileName) {
+        Path folder = Paths.get(path);
+        Path source = folder.resolve(fileName);
+        try {
+            List<Integer> written = generateTimer.recordCallable(() -> writeVariants(folder, source, fileName));
+            if (!written.isEmpty()) {
+                Map<Integer, String> urls = new TreeMap<>(existingVariants.getOrDefault(fileName, Collections.emptyMap()));
+                for (int width : written) {
+                    urls.put(width, imageBaseUrl + "/" + variantFileName(fileName, width));
+                }
+                existingVariants.put(fileName, Collections.unmodifiableMap(urls));
+                eventPublisher.publishEvent(new ImageVariantsGeneratedEvent(fileName));
+            }
+        } catch (Exception e) {
+            logger.warn("Could not generate variants for {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    // Returns the widths written; variants already on disk are left alone
+    private List<Integer> writeVariants(Path folder, Path source, String fileName) throws IOException {
+        Map<Integer, String> indexed = existingVariants.getOrDefault(fileName, Collections.emptyMap());
+        List<Integer> missing = new ArrayList<>();
+        for (int width : widths) {
+            if (!indexed.containsKey(width)) {
+                missing.add(width);
+            }
+        }
+        List<Integer> written = new ArrayList<>();
+        if (missing.isEmpty()) {
+            return written;
+        }
+
+        BufferedImage original = decode(source, widths.get(widths.size() - 1) * 2);
+        if (original == null) {
+            logger.debug("No decoder for {}, serving the original only", fileName);
+            return written;
+        }
+        boolean keepAlpha = !isJpeg(fileName);
+
+        for (int width : missing) {
+            if (width >= original.getWidth()) {
+                // Widths are sorted, every remaining one would be an upscale
+                break;
+            }
+            BufferedImage scaled = ImageResizer.scaleToWidth(original, width, keepAlpha);
+            write(scaled, folder, variantFileName(fileName, width), keepAlpha ? "png" : "jpeg");
+            written.add(width);
+        }
+        if (!written.isEmpty()) {
+            logger.debug("Generated variants {} for {}", written, fileName);
+        }
+        return written;
+    }
+
+    /**
+     * Decodes the first image, subsampled to at most maxWidth. With an
+     * integer step the result stays wider than maxWidth / 2, so every
+     * variant narrower than the source is still a downscale. Returns null
+     * when there is no decoder or the decoded image would still be too large.
+     */
+    private BufferedImage decode(Path source, int maxWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // Readers only allocate the subsampled raster, so a large source never sits in memory at full size
+                int step = ceilDiv(width, maxWidth);
+                long pixels = (long) ceilDiv(width, step) * ceilDiv(height, step);
+                if (pixels > MAX_DECODED_PIXELS) {
+                    logger.warn("Skipping variants for {}: {}x{} is too large even subsampled", source.getFileName(), width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Written to a temp file and moved into place, so a reader never sees a partial variant
+    private void write(BufferedImage image, Path folder, String fileName, String format) throws IOException {
+        Path tempFile = Files.createTempFile(folder, "variant-", ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(tempFile.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            try {
+                Files.move(tempFile, folder.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, folder.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    // One pass over the directory names at startup; no per-file stat
+    private void indexExistingVariants() {
+        Path folder = Paths.get(path);
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        Map<String, Map<Integer, String>> found = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder, "*-w*")) {
+            for (Path file : files) {
+                Matcher variant = VARIANT_NAME.matcher(file.getFileName().toString());
+                if (!variant.matches()) {
+                    continue;
+                }
+                int width = Integer.parseInt(variant.group(2));
+                if (!widths.contains(width)) {
+                    continue;
+                }
+                // The original's extension is not recoverable from a PNG variant, so key by every candidate
+                for (String original : originalNames(variant.group(1), variant.group(3))) {
+                    found.computeIfAbsent(original, key -> new TreeMap<>())
+                            .put(width, imageBaseUrl + "/" + file.getFileName());
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Could not index image variants in {}: {}", folder, e.getMessage());
+            return;
+        }
+        found.forEach((original, urls) -> existingVariants.put(original, Collections.unmodifiableMap(urls)));
+        logger.info("Indexed image variants for {} originals", found.size());
+    }
+
+    private static List<String> originalNames(String stem, String variantExtension) {
+        return "jpg".equals(variantExtension)
+                ? List.of(stem + ".jpg", stem + ".jpeg")
+                : List.of(stem + ".png", stem + ".gif");
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    private static String variantFileName(String fileName, int width) {
+        int dot = fileName.lastIndexOf('.');
+        String stem = dot == -1 ? fileName : fileName.substring(0, dot);
+        String extension = isJpeg(fileName) ? ".jpg" : ".png";
+        return stem + "-w" + width + extension;
+    }
+
+    private static boolean isJpeg(String fileName) {
+        String lower = fileName.toLowerCase();
+        return lower.endsWith(".jpg") || lower.endsWith(".jpeg");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class VariantThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "image-variant-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
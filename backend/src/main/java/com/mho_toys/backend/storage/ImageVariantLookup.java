@@ -0,0 +1,16 @@
+package com.mho_toys.backend.storage;
+
+import java.util.Map;
+
+/**
+ * Answers which resized variants of a product image exist.
+ */
+@FunctionalInterface
+public interface ImageVariantLookup {
+
+    /**
+     * Width to URL for the existing variants of imageUrl, ordered by width.
+     * Empty for external URLs and images without variants.
+     */
+    Map<Integer, String> variantUrls(String imageUrl);
+}
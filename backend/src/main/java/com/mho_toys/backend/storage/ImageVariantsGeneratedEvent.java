@@ -0,0 +1,8 @@
+package com.mho_toys.backend.storage;
+
+/**
+ * Published once the resized variants of a stored image are on disk, so
+ * cached product views can pick up the new URLs.
+ */
+public record ImageVariantsGeneratedEvent(String fileName) {
+}
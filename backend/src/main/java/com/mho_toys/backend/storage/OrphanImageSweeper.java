@@ -0,0 +1,217 @@
+package com.mho_toys.backend.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mho_toys.backend.repository.ImageBlobRepository;
+import com.mho_toys.backend.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deletes image files that no product references any more.
+ *
+ * The referenced set is taken from products.image_url at the start of each
+ * sweep; it is bounded by the catalog size, whereas the directory is not,
+ * so the directory is walked one entry at a time with a DirectoryStream and
+ * memory stays flat however many files it holds. Only files older than the
+ * grace period are deleted, which covers uploads still in flight and images
+ * stored after the referenced set was read (a deduplicated upload touches
+ * the existing file for the same reason). Deletes are paced to
+ * maxDeletesPerSecond and a sweep stops after maxRunMs, so it never competes
+ * with request traffic for disk I/O.
+ */
+@Component
+@ConditionalOnProperty(name = "mho.app.imageGc.enabled", havingValue = "true", matchIfMissing = true)
+public class OrphanImageSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanImageSweeper.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageBlobRepository imageBlobRepository;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${project.image}")
+    private String path;
+
+    @Value("${image.base.url}")
+    private String imageBaseUrl;
+
+    @Value("${mho.app.imageGc.gracePeriodMs:86400000}")
+    private long gracePeriodMs;
+
+    @Value("${mho.app.imageGc.maxDeletesPerSecond:20}")
+    private int maxDeletesPerSecond;
+
+    @Value("${mho.app.imageGc.maxRunMs:600000}")
+    private long maxRunMs;
+
+    private Counter deletedFiles;
+    private Counter reclaimedBytes;
+    private Timer sweepTimer;
+
+    @PostConstruct
+    void init() {
+        deletedFiles = Counter.builder("images.gc.deleted")
+                .description("Orphaned image files deleted")
+                .register(meterRegistry);
+        reclaimedBytes = Counter.builder("images.gc.reclaimed")
+                .description("Disk space reclaimed from orphaned image files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        sweepTimer = Timer.builder("images.gc.sweep")
+                .description("Duration of orphaned image sweeps")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${mho.app.imageGc.intervalMs:3600000}",
+            initialDelayString = "${mho.app.imageGc.initialDelayMs:300000}")
+    public void sweep() {
+        Path folder = Paths.get(path);
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        sweepTimer.record(() -> sweep(folder));
+    }
+
+    private void sweep(Path folder) {
+        Set<String> referenced = referencedFileNames();
+        Instant cutoff = Instant.now().minusMillis(gracePeriodMs);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxRunMs);
+        long pauseNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxDeletesPerSecond);
+
+        long scanned = 0;
+        long deleted = 0;
+        long bytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(folder)) {
+            for (Path file : files) {
+                scanned++;
+                if (referenced.contains(file.getFileName().toString())) {
+                    continue;
+                }
+                long size = deleteIfOrphaned(file, cutoff);
+                if (size < 0) {
+                    continue;
+                }
+                deleted++;
+                bytes += size;
+
+                if (System.nanoTime() >= deadline) {
+                    logger.info("Image sweep stopped after {}ms, resuming next run", maxRunMs);
+                    break;
+                }
+                TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            }
+        } catch (IOException e) {
+            logger.error("Image sweep of {} failed: {}", folder, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (deleted > 0) {
+            logger.info("Image sweep deleted {} of {} files, reclaimed {} bytes", deleted, scanned, bytes);
+        } else {
+            logger.debug("Image sweep scanned {} files, nothing to delete", scanned);
+        }
+    }
+
+    /**
+     * Returns the number of bytes freed, or -1 if the file was kept.
+     * Attributes are read right before the delete so a file touched by a
+     * concurrent deduplicated upload is left alone. A retain does not touch
+     * the file, so the blob row is locked and its ref_count checked in the
+     * same transaction that deletes the row and the file.
+     */
+    private long deleteIfOrphaned(Path file, Instant cutoff) {
+        String fileName = file.getFileName().toString();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile() || attributes.lastModifiedTime().toInstant().isAfter(cutoff)) {
+                return -1;
+            }
+            Boolean removed = transactionTemplate.execute(status -> {
+                // Variants and files stored before ref counting have no row
+                Optional<Integer> refCount = imageBlobRepository.lockRefCount(fileName);
+                if (refCount.isPresent() && refCount.get() > 0) {
+                    return false;
+                }
+                imageBlobRepository.deleteUnreferenced(fileName);
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(removed)) {
+                return -1;
+            }
+            imageVariantGenerator.forget(fileName);
+
+            deletedFiles.increment();
+            reclaimedBytes.increment(attributes.size());
+            logger.debug("Deleted orphaned image {} ({} bytes, unused for {})", file.getFileName(), attributes.size(),
+                    Duration.between(attributes.lastModifiedTime().toInstant(), Instant.now()));
+            return attributes.size();
+        } catch (NoSuchFileException e) {
+            return -1;
+        } catch (IOException e) {
+            logger.warn("Could not delete orphaned image {}: {}", file.getFileName(), e.getMessage());
+            return -1;
+        } catch (UncheckedIOException e) {
+            if (!(e.getCause() instanceof NoSuchFileException)) {
+                logger.warn("Could not delete orphaned image {}: {}", file.getFileName(), e.getCause().getMessage());
+            }
+            return -1;
+        }
+    }
+
+    private Set<String> referencedFileNames() {
+        String prefix = imageBaseUrl + "/";
+        Set<String> names = new HashSet<>();
+        for (String imageUrl : productRepository.findAllImageUrls()) {
+            if (imageUrl.startsWith(prefix)) {
+                String fileName = imageUrl.substring(prefix.length());
+                names.add(fileName);
+                // Variants live and die with their original
+                names.addAll(imageVariantGenerator.variantFileNames(fileName));
+            }
+        }
+        return names;
+    }
+}
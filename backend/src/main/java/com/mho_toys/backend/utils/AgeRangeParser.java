@@ -0,0 +1,59 @@
+package com.mho_toys.backend.utils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Turns the free-form age range of a product ("6-12 Months", "2-3 Years",
+ * "5+ Years") into numeric month bounds that can be indexed and filtered on.
+ */
+public final class AgeRangeParser {
+
+    private static final Pattern BOUNDED_PATTERN = Pattern.compile(
+        "^(\\d+)(?:-(\\d+))?\\s+(Months?|Years?)$"
+    );
+
+    private static final Pattern OPEN_ENDED_PATTERN = Pattern.compile(
+        "^(\\d+)\\+\\s+(Months?|Years?)$"
+    );
+
+    private AgeRangeParser() {
+    }
+
+    /**
+     * @return the bounds in months, or null if the text is not a valid age range.
+     *         An open-ended range ("5+ Years") has a null maximum.
+     */
+    public static AgeRangeMonths parse(String ageRange) {
+        if (ageRange == null) {
+            return null;
+        }
+        String trimmed = ageRange.trim();
+
+        Matcher bounded = BOUNDED_PATTERN.matcher(trimmed);
+        if (bounded.matches()) {
+            boolean years = bounded.group(3).startsWith("Year");
+            int low = Integer.parseInt(bounded.group(1));
+            int high = bounded.group(2) != null ? Integer.parseInt(bounded.group(2)) : low;
+            if (high < low) {
+                return null;
+            }
+            // "2-3 Years" covers children up to the day before their 4th birthday
+            return years
+                    ? new AgeRangeMonths(low * 12, high * 12 + 11)
+                    : new AgeRangeMonths(low, high);
+        }
+
+        Matcher openEnded = OPEN_ENDED_PATTERN.matcher(trimmed);
+        if (openEnded.matches()) {
+            int low = Integer.parseInt(openEnded.group(1));
+            boolean years = openEnded.group(2).startsWith("Year");
+            return new AgeRangeMonths(years ? low * 12 : low, null);
+        }
+
+        return null;
+    }
+
+    public record AgeRangeMonths(Integer minMonths, Integer maxMonths) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.mho_toys.backend.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Client address as seen by the application: the first X-Forwarded-For
+ * entry when the request came through a proxy, the socket address otherwise.
+ */
+public final class ClientIpResolver {
+
+    private ClientIpResolver() {
+    }
+
+    public static String resolve(HttpServletRequest request) {
+        String xForwardedForHeader = request.getHeader("X-Forwarded-For");
+        if (xForwardedForHeader == null || xForwardedForHeader.isEmpty()) {
+            return request.getRemoteAddr();
+        }
+        // X-Forwarded-For can contain multiple IPs, get the first one
+        return xForwardedForHeader.split(",")[0].trim();
+    }
+}
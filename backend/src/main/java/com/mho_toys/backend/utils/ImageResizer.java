@@ -0,0 +1,57 @@
+package com.mho_toys.backend.utils;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * Downscales images to a target width, keeping the aspect ratio.
+ *
+ * A single bilinear pass from a large image to a small one skips most of the
+ * source pixels and aliases badly, so the image is halved repeatedly until
+ * it is within a factor of two of the target and then drawn once more at
+ * the exact size. Each step is cheap and the result is close to an area
+ * average.
+ */
+public final class ImageResizer {
+
+    private ImageResizer() {
+    }
+
+    public static BufferedImage scaleToWidth(BufferedImage source, int targetWidth, boolean keepAlpha) {
+        if (targetWidth <= 0 || targetWidth >= source.getWidth()) {
+            throw new IllegalArgumentException("targetWidth must be positive and smaller than the source width");
+        }
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = width == targetWidth ? targetHeight : Math.max(targetHeight, height / 2);
+            current = draw(current, width, height, type);
+        } while (width != targetWidth);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, int type) {
+        BufferedImage scaled = new BufferedImage(width, height, type);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            if (type == BufferedImage.TYPE_INT_RGB) {
+                // JPEG has no alpha; transparent source pixels become white rather than black
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+}
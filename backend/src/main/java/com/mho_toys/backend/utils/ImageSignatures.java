@@ -0,0 +1,54 @@
+package com.mho_toys.backend.utils;
+
+/**
+ * Magic-number check for the image formats accepted on upload, so content
+ * is validated by its leading bytes rather than the client's claimed type.
+ */
+public final class ImageSignatures {
+
+    private ImageSignatures() {
+    }
+
+    public static boolean isValidImageHeader(byte[] header) {
+        // JPEG signature: FF D8 FF
+        if (header.length >= 3 && 
+            (header[0] & 0xFF) == 0xFF && 
+            (header[1] & 0xFF) == 0xD8 && 
+            (header[2] & 0xFF) == 0xFF) {
+            return true;
+        }
+
+        // PNG signature: 89 50 4E 47 0D 0A 1A 0A
+        if (header.length >= 8 &&
+            (header[0] & 0xFF) == 0x89 &&
+            (header[1] & 0xFF) == 0x50 &&
+            (header[2] & 0xFF) == 0x4E &&
+            (header[3] & 0xFF) == 0x47 &&
+            (header[4] & 0xFF) == 0x0D &&
+            (header[5] & 0xFF) == 0x0A &&
+            (header[6] & 0xFF) == 0x1A &&
+            (header[7] & 0xFF) == 0x0A) {
+            return true;
+        }
+
+        // GIF signature: 47 49 46 38 (GIF8)
+        if (header.length >= 4 &&
+            (header[0] & 0xFF) == 0x47 &&
+            (header[1] & 0xFF) == 0x49 &&
+            (header[2] & 0xFF) == 0x46 &&
+            (header[3] & 0xFF) == 0x38) {
+            return true;
+        }
+
+        // WebP signature: 52 49 46 46 (RIFF) followed by WebP
+        if (header.length >= 4 &&
+            (header[0] & 0xFF) == 0x52 &&
+            (header[1] & 0xFF) == 0x49 &&
+            (header[2] & 0xFF) == 0x46 &&
+            (header[3] & 0xFF) == 0x46) {
+            return true;
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,75 @@
+package com.mho_toys.backend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.mho_toys.backend.dto.ProductSortOrder;
+
+/**
+ * Opaque continuation cursor for keyset pagination. It carries the sort
+ * order and the sort key of the last row returned: (price, productId) for
+ * price sorts, productId otherwise.
+ */
+public final class ProductPageCursor {
+
+    private static final String VERSION = "v1";
+
+    private final ProductSortOrder sort;
+    private final Double price;
+    private final Long productId;
+
+    private ProductPageCursor(ProductSortOrder sort, Double price, Long productId) {
+        this.sort = sort;
+        this.price = price;
+        this.productId = productId;
+    }
+
+    public static ProductPageCursor of(ProductSortOrder sort, Double price, Long productId) {
+        return new ProductPageCursor(sort, sort.isByPrice() ? price : null, productId);
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + sort.name() + "|" + (price != null ? price.toString() : "") + "|" + productId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductPageCursor decode(String cursor, ProductSortOrder expectedSort) {
+        ProductPageCursor decoded = parse(cursor);
+        if (decoded.sort != expectedSort) {
+            throw new IllegalArgumentException("Page cursor does not match sort order " + expectedSort);
+        }
+        return decoded;
+    }
+
+    private static ProductPageCursor parse(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+
+            ProductSortOrder sort = ProductSortOrder.valueOf(parts[1]);
+            Double price = parts[2].isEmpty() ? null : Double.valueOf(parts[2]);
+            if (sort.isByPrice() && price == null) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return new ProductPageCursor(sort, price, Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException e) {
+            // Bad Base64, unknown sort names and NumberFormatException all end up here
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+    }
+
+    public ProductSortOrder getSort() {
+        return sort;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+}
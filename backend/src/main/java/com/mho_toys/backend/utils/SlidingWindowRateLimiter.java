@@ -0,0 +1,151 @@
+package com.mho_toys.backend.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key sliding-window rate limiter.
+ *
+ * Uses the sliding window counter approximation: the count of the previous
+ * fixed window is weighted by how much of it still overlaps the sliding
+ * window, so each key costs two counters rather than a timestamp per
+ * request. The key table is a short critical section kept in access order;
+ * once it holds maxKeys, the least recently seen key is dropped to make
+ * room, so a flood of fresh keys can never switch limiting off. Counters
+ * are guarded by a monitor per key, and idle keys are dropped by
+ * evictIdle().
+ */
+public final class SlidingWindowRateLimiter {
+
+    private final int limit;
+    private final long windowMs;
+    private final int maxKeys;
+    private final LongSupplier clock;
+
+    private final LinkedHashMap<String, Window> windows;
+
+    public SlidingWindowRateLimiter(int limit, long windowMs, int maxKeys) {
+        this(limit, windowMs, maxKeys, System::currentTimeMillis);
+    }
+
+    SlidingWindowRateLimiter(int limit, long windowMs, int maxKeys, LongSupplier clock) {
+        if (limit <= 0 || windowMs <= 0 || maxKeys <= 0) {
+            throw new IllegalArgumentException("limit, windowMs and maxKeys must be positive");
+        }
+        this.limit = limit;
+        this.windowMs = windowMs;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                return size() > SlidingWindowRateLimiter.this.maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Records one request for the key and returns whether it is allowed.
+     * Rejected requests are not counted, so a client that backs off
+     * recovers after one window.
+     */
+    public boolean tryAcquire(String key) {
+        long now = clock.getAsLong();
+        Window window;
+        synchronized (windows) {
+            window = windows.computeIfAbsent(key, k -> new Window(now - Math.floorMod(now, windowMs)));
+        }
+        return window.tryAcquire(now);
+    }
+
+    /**
+     * Milliseconds until the key would be allowed another request; 0 if it
+     * would be allowed now.
+     */
+    public long retryAfterMs(String key) {
+        Window window;
+        synchronized (windows) {
+            window = windows.get(key);
+        }
+        return window != null ? window.retryAfterMs(clock.getAsLong()) : 0;
+    }
+
+    /**
+     * Drops keys with no request for two windows; their counters can no
+     * longer affect a decision.
+     */
+    public void evictIdle() {
+        long cutoff = clock.getAsLong() - 2 * windowMs;
+        synchronized (windows) {
+            windows.values().removeIf(window -> window.lastSeen() < cutoff);
+        }
+    }
+
+    public int size() {
+        synchronized (windows) {
+            return windows.size();
+        }
+    }
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    private final class Window {
+
+        private long windowStart;
+        private int previous;
+        private int current;
+        private volatile long lastSeen;
+
+        Window(long windowStart) {
+            this.windowStart = windowStart;
+        }
+
+        synchronized boolean tryAcquire(long now) {
+            lastSeen = now;
+            roll(now);
+            double overlap = (double) (windowMs - (now - windowStart)) / windowMs;
+            if (previous * overlap + current >= limit) {
+                return false;
+            }
+            current++;
+            return true;
+        }
+
+        synchronized long retryAfterMs(long now) {
+            roll(now);
+            long elapsed = now - windowStart;
+            double wait;
+            if (current >= limit) {
+                // Not before the next window, and then until enough of this one has slid out
+                wait = (windowMs - elapsed) + windowMs * (1 - (double) limit / current);
+            } else if (previous > 0) {
+                // Until the weighted share of the previous window drops below the remaining budget
+                wait = windowMs - (double) (limit - current) * windowMs / previous - elapsed;
+            } else {
+                wait = 0;
+            }
+            // The check is strict, so the first allowed instant is just past the boundary
+            return wait > 0 ? (long) Math.ceil(wait) + 1 : 0;
+        }
+
+        private void roll(long now) {
+            long elapsed = now - windowStart;
+            if (elapsed >= 2 * windowMs) {
+                previous = 0;
+                current = 0;
+                windowStart = now - Math.floorMod(now, windowMs);
+            } else if (elapsed >= windowMs) {
+                previous = current;
+                current = 0;
+                windowStart += windowMs;
+            }
+        }
+
+        long lastSeen() {
+            return lastSeen;
+        }
+    }
+}
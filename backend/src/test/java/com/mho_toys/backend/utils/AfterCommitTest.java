@@ -0,0 +1,42 @@
+package com.mho_toys.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class AfterCommitTest {
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void runsImmediatelyWithoutATransaction() {
+		AtomicBoolean ran = new AtomicBoolean();
+
+		AfterCommit.run(() -> ran.set(true));
+
+		assertTrue(ran.get());
+	}
+
+	@Test
+	void waitsForTheCommitInsideATransaction() {
+		TransactionSynchronizationManager.initSynchronization();
+		AtomicBoolean ran = new AtomicBoolean();
+
+		AfterCommit.run(() -> ran.set(true));
+		assertFalse(ran.get());
+
+		TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+		assertTrue(ran.get());
+	}
+}
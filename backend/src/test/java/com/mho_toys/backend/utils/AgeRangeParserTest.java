@@ -0,0 +1,37 @@
+package com.mho_toys.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import com.mho_toys.backend.utils.AgeRangeParser.AgeRangeMonths;
+
+class AgeRangeParserTest {
+
+	@Test
+	void parsesMonthRanges() {
+		assertEquals(new AgeRangeMonths(6, 12), AgeRangeParser.parse("6-12 Months"));
+		assertEquals(new AgeRangeMonths(18, 18), AgeRangeParser.parse("18 Months"));
+	}
+
+	@Test
+	void yearRangesCoverTheWholeUpperYear() {
+		assertEquals(new AgeRangeMonths(24, 47), AgeRangeParser.parse("2-3 Years"));
+		assertEquals(new AgeRangeMonths(12, 23), AgeRangeParser.parse("1 Year"));
+	}
+
+	@Test
+	void openEndedRangesHaveNoMaximum() {
+		assertEquals(new AgeRangeMonths(60, null), AgeRangeParser.parse("5+ Years"));
+		assertEquals(new AgeRangeMonths(9, null), AgeRangeParser.parse("9+ Months"));
+	}
+
+	@Test
+	void rejectsInvalidRanges() {
+		assertNull(AgeRangeParser.parse(null));
+		assertNull(AgeRangeParser.parse("toddlers"));
+		assertNull(AgeRangeParser.parse("5-2 Years"));
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.mho_toys.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+	@Test
+	void neverMissesAnAddedValue() {
+		BloomFilter filter = new BloomFilter(1_000, 0.01);
+		String[] ids = new String[1_000];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = UUID.randomUUID().toString();
+			filter.add(ids[i]);
+		}
+
+		for (String id : ids) {
+			assertTrue(filter.mightContain(id));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTheConfiguredProbability() {
+		BloomFilter filter = new BloomFilter(1_000, 0.01);
+		for (int i = 0; i < 1_000; i++) {
+			filter.add(UUID.randomUUID().toString());
+		}
+
+		int falsePositives = 0;
+		for (int i = 0; i < 10_000; i++) {
+			if (filter.mightContain(UUID.randomUUID().toString())) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+	}
+}
@@ -0,0 +1,48 @@
+package com.mho_toys.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedTtlCacheTest {
+
+	@Test
+	void servesRepeatedReadsFromMemory() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 60_000);
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get("alice", () -> "v" + loads.incrementAndGet());
+		assertEquals("v1", cache.get("alice", () -> "v" + loads.incrementAndGet()));
+
+		assertEquals(1, cache.hitCount());
+		assertEquals(1, cache.missCount());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedBeyondMaxSize() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(2, 60_000);
+		cache.get("a", () -> "a");
+		cache.get("b", () -> "b");
+		cache.get("a", () -> "a");
+		cache.get("c", () -> "c");
+
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.evictionCount());
+		assertEquals("b2", cache.get("b", () -> "b2"));
+	}
+
+	@Test
+	void loadRacingAnInvalidationIsNotCached() {
+		BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, 60_000);
+
+		String stale = cache.get("alice", () -> {
+			cache.invalidate("alice");
+			return "stale";
+		});
+
+		assertEquals("stale", stale);
+		assertEquals("fresh", cache.get("alice", () -> "fresh"));
+	}
+}
@@ -0,0 +1,56 @@
+package com.mho_toys.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.Test;
+
+class ImageResizerTest {
+
+	@Test
+	void scalesToTheTargetWidthKeepingAspectRatio() {
+		BufferedImage source = new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB);
+
+		BufferedImage scaled = ImageResizer.scaleToWidth(source, 480, false);
+
+		assertEquals(480, scaled.getWidth());
+		assertEquals(360, scaled.getHeight());
+		assertEquals(BufferedImage.TYPE_INT_RGB, scaled.getType());
+	}
+
+	@Test
+	void keepsAlphaWhenAsked() {
+		BufferedImage source = new BufferedImage(300, 100, BufferedImage.TYPE_INT_ARGB);
+
+		BufferedImage scaled = ImageResizer.scaleToWidth(source, 240, true);
+
+		assertEquals(240, scaled.getWidth());
+		assertEquals(80, scaled.getHeight());
+		assertEquals(BufferedImage.TYPE_INT_ARGB, scaled.getType());
+	}
+
+	@Test
+	void fillsTransparentPixelsWithWhiteWhenDroppingAlpha() {
+		BufferedImage source = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+
+		BufferedImage scaled = ImageResizer.scaleToWidth(source, 10, false);
+
+		assertEquals(0xFFFFFF, scaled.getRGB(5, 5) & 0xFFFFFF);
+	}
+
+	@Test
+	void neverProducesAZeroHeight() {
+		BufferedImage source = new BufferedImage(4000, 2, BufferedImage.TYPE_INT_RGB);
+
+		assertEquals(1, ImageResizer.scaleToWidth(source, 100, false).getHeight());
+	}
+
+	@Test
+	void rejectsUpscaling() {
+		BufferedImage source = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+
+		assertThrows(IllegalArgumentException.class, () -> ImageResizer.scaleToWidth(source, 200, false));
+	}
+}
@@ -0,0 +1,28 @@
+package com.mho_toys.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ImageSignaturesTest {
+
+	@Test
+	void acceptsSupportedFormats() {
+		assertTrue(ImageSignatures.isValidImageHeader(new byte[] {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+		assertTrue(ImageSignatures.isValidImageHeader(new byte[] {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A}));
+		assertTrue(ImageSignatures.isValidImageHeader(new byte[] {0x47, 0x49, 0x46, 0x38, 0x39, 0x61}));
+		assertTrue(ImageSignatures.isValidImageHeader(new byte[] {0x52, 0x49, 0x46, 0x46, 0x24, 0x00, 0x00, 0x00}));
+	}
+
+	@Test
+	void rejectsOtherContent() {
+		assertFalse(ImageSignatures.isValidImageHeader(new byte[] {0x25, 0x50, 0x44, 0x46, 0x2D, 0x31, 0x2E, 0x37}));
+	}
+
+	@Test
+	void rejectsTruncatedHeaders() {
+		assertFalse(ImageSignatures.isValidImageHeader(new byte[0]));
+		assertFalse(ImageSignatures.isValidImageHeader(new byte[] {(byte) 0x89, 0x50, 0x4E}));
+	}
+}
@@ -0,0 +1,81 @@
+package com.mho_toys.backend.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowRateLimiterTest {
+
+	private final AtomicLong now = new AtomicLong(60_000);
+
+	@Test
+	void rejectsRequestsBeyondTheLimitPerKey() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(3, 1_000, 100, now::get);
+
+		assertTrue(limiter.tryAcquire("10.0.0.1"));
+		assertTrue(limiter.tryAcquire("10.0.0.1"));
+		assertTrue(limiter.tryAcquire("10.0.0.1"));
+		assertFalse(limiter.tryAcquire("10.0.0.1"));
+		assertTrue(limiter.tryAcquire("10.0.0.2"));
+	}
+
+	@Test
+	void previousWindowStillCountsWhileItOverlaps() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(4, 1_000, 100, now::get);
+		for (int i = 0; i < 4; i++) {
+			limiter.tryAcquire("user");
+		}
+
+		// Halfway into the next window, half of the previous four still count
+		now.addAndGet(1_500);
+		assertTrue(limiter.tryAcquire("user"));
+		assertTrue(limiter.tryAcquire("user"));
+		assertFalse(limiter.tryAcquire("user"));
+	}
+
+	@Test
+	void evictsIdleKeys() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, 1_000, 100, now::get);
+		limiter.tryAcquire("a");
+		now.addAndGet(2_500);
+		limiter.tryAcquire("b");
+
+		limiter.evictIdle();
+
+		assertEquals(1, limiter.size());
+	}
+
+	@Test
+	void evictsTheLeastRecentlySeenKeyWhenFull() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(1, 1_000, 2, now::get);
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("b");
+		limiter.tryAcquire("a");
+
+		// A new key still gets limited and pushes out "b", not the recently seen "a"
+		assertTrue(limiter.tryAcquire("c"));
+		assertFalse(limiter.tryAcquire("c"));
+		assertFalse(limiter.tryAcquire("a"));
+		assertEquals(2, limiter.size());
+		assertTrue(limiter.tryAcquire("b"));
+	}
+
+	@Test
+	void retryAfterIsTheTimeUntilASlotFrees() {
+		SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(2, 1_000, 100, now::get);
+		assertEquals(0, limiter.retryAfterMs("user"));
+
+		limiter.tryAcquire("user");
+		limiter.tryAcquire("user");
+		now.addAndGet(250);
+		long retryAfterMs = limiter.retryAfterMs("user");
+		assertTrue(retryAfterMs > 0 && retryAfterMs <= 751, "retryAfterMs: " + retryAfterMs);
+
+		now.addAndGet(retryAfterMs);
+		assertTrue(limiter.tryAcquire("user"));
+	}
+}
@@ -0,0 +1,55 @@
+package com.mho_toys.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mho_toys.backend.utils.ImageSignatures;
+
+/**
+ * Cost of the upload signature check for JPEG (checked first), PNG (second),
+ * WebP (checked last) and a rejected header.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageHeaderBenchmark {
+
+    private final byte[] jpegHeader = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0x00, 0x10, 0x4A, 0x46};
+    private final byte[] pngHeader = {(byte) 0x89, 0x50, 0x4E, 0x47, 0x0D, 0x0A, 0x1A, 0x0A};
+    private final byte[] webpHeader = {0x52, 0x49, 0x46, 0x46, 0x24, 0x00, 0x00, 0x00};
+    private final byte[] invalidHeader = {0x25, 0x50, 0x44, 0x46, 0x2D, 0x31, 0x2E, 0x37};
+
+    // JPEG is the first signature checked
+    @Benchmark
+    public boolean jpegHeader() {
+        return ImageSignatures.isValidImageHeader(jpegHeader);
+    }
+
+    @Benchmark
+    public boolean pngHeader() {
+        return ImageSignatures.isValidImageHeader(pngHeader);
+    }
+
+    // WebP is the last signature checked
+    @Benchmark
+    public boolean webpHeader() {
+        return ImageSignatures.isValidImageHeader(webpHeader);
+    }
+
+    @Benchmark
+    public boolean invalidHeader() {
+        return ImageSignatures.isValidImageHeader(invalidHeader);
+    }
+}
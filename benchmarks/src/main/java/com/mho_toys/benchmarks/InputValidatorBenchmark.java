@@ -0,0 +1,62 @@
+package com.mho_toys.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mho_toys.backend.utils.InputValidator;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputValidatorBenchmark {
+
+    private final String productName = "Wooden Stacking Rainbow";
+    private final String productDescription =
+            "A twelve piece wooden rainbow stacker painted with water based colours, suitable for open-ended play.";
+    private final String ageRange = "2-3 Years";
+    private final String email = "customer@mhotoys.com";
+    private final String username = "customer_2024";
+    private final String password = "Customer2024Pass";
+
+    @Benchmark
+    public boolean isValidProductName() {
+        return InputValidator.isValidProductName(productName);
+    }
+
+    @Benchmark
+    public boolean isValidProductDescription() {
+        return InputValidator.isValidProductDescription(productDescription);
+    }
+
+    @Benchmark
+    public boolean isValidAgeRange() {
+        return InputValidator.isValidAgeRange(ageRange);
+    }
+
+    @Benchmark
+    public boolean isValidEmail() {
+        return InputValidator.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean isValidUsername() {
+        return InputValidator.isValidUsername(username);
+    }
+
+    @Benchmark
+    public boolean isValidPassword() {
+        return InputValidator.isValidPassword(password);
+    }
+}
@@ -0,0 +1,80 @@
+package com.mho_toys.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.mho_toys.backend.security.jwt.JwtTokenClaims;
+import com.mho_toys.backend.security.jwt.JwtUtils;
+
+/**
+ * Token checks that run on every authenticated request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    // Same default as application.properties
+    private static final String SECRET =
+            "dGhpc0lzQVNlY3VyZVNlY3JldEtleUZvckpXVFRva2VuU2lnbmluZ1B1cnBvc2VzMTIzNDU2Nzg5MA==";
+
+    private JwtUtils jwtUtils;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86400000);
+        ReflectionTestUtils.invokeMethod(jwtUtils, "init");
+
+        userDetails = User.withUsername("customer")
+                .password("unused")
+                .authorities("ROLE_USER")
+                .build();
+        token = jwtUtils.generateTokenFromUsername(userDetails);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public String getUserNameFromJwtToken() {
+        return jwtUtils.getUserNameFromJwtToken(token);
+    }
+
+    // What AuthTokenFilter does per request after the user has been loaded
+    @Benchmark
+    public boolean validateTokenForUser() {
+        return jwtUtils.validateJwtToken(token) && jwtUtils.validateTokenForUser(token, userDetails);
+    }
+
+    @Benchmark
+    public JwtTokenClaims parseToken() {
+        return jwtUtils.parseToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateTokenFromUsername(userDetails);
+    }
+}
@@ -0,0 +1,56 @@
+package com.mho_toys.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.mapper.ProductMapper;
+
+/**
+ * JSON encoding of the full product list, as GET /api/products would do per
+ * request without the pre-encoded catalog snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductListSerializationBenchmark {
+
+    @Param({"50", "500", "5000"})
+    private int catalogSize;
+
+    private ObjectMapper objectMapper;
+    private List<ProductDTO> products;
+
+    @Setup
+    public void setUp() {
+        // Mirrors spring.jackson.default-property-inclusion=NON_NULL
+        objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        ProductMapper productMapper = ProductMappingBenchmark.newProductMapper();
+        products = ProductMappingBenchmark.sampleProducts(catalogSize).stream()
+                .map(productMapper::toDto)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serializeProductList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mho_toys.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.mho_toys.backend.dto.ProductDTO;
+import com.mho_toys.backend.mapper.ProductMapper;
+import com.mho_toys.backend.model.Product;
+
+/**
+ * Per-item cost of Product -> ProductDTO mapping: the hand-written
+ * ProductMapper against the reflective ModelMapper it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    static final int CATALOG_SIZE = 500;
+
+    private List<Product> products;
+    private ProductMapper productMapper;
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+        products = sampleProducts(CATALOG_SIZE);
+        productMapper = newProductMapper();
+        modelMapper = new ModelMapper();
+        // Pay the type-map introspection outside the measurement
+        modelMapper.map(products.get(0), ProductDTO.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CATALOG_SIZE)
+    public void handWrittenMapper(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(productMapper.toDto(product));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CATALOG_SIZE)
+    public void modelMapper(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(modelMapper.map(product, ProductDTO.class));
+        }
+    }
+
+    // No variants on disk here; the lookup itself is an in-memory map read in production
+    static ProductMapper newProductMapper() {
+        return new ProductMapper(imageUrl -> Map.of());
+    }
+
+    static List<Product> sampleProducts(int count) {
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Product product = new Product();
+            product.setProductId((long) i);
+            product.setName("Wooden Toy " + i);
+            product.setDescription("Hand-finished wooden toy number " + i + " with rounded edges");
+            product.setPrice(4.99 + (i % 120));
+            product.setAgeRange((i % 6 + 1) + "-" + (i % 6 + 3) + " Years");
+            product.setImageUrl("http://localhost:8080/images/" + i + ".png");
+            products.add(product);
+        }
+        return products;
+    }
+}
@@ -22,12 +22,45 @@ api.interceptors.request.use(
   }
 );
 
+// Access tokens are short-lived; concurrent 401s share a single refresh call
+let refreshPromise = null;
+
+const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    refreshPromise = api
+      .post('/auth/public/refresh', null, { skipAuthRefresh: true })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
 // Response interceptor for handling responses and errors
 api.interceptors.response.use(
   (response) => {
     return response;
   },
-  (error) => {
+  async (error) => {
+    const originalRequest = error.config;
+
+    // Renew an expired access token once via the refresh cookie, then replay the request
+    if (
+      error.response?.status === 401 &&
+      originalRequest &&
+      !originalRequest.skipAuthRefresh &&
+      !originalRequest._retried &&
+      !originalRequest.url?.startsWith('/auth/public/')
+    ) {
+      originalRequest._retried = true;
+      try {
+        await refreshAccessToken();
+        return api(originalRequest);
+      } catch (refreshError) {
+        // Fall through to the normal 401 handling below
+      }
+    }
+
     // Handle different types of errors
     if (error.response) {
       // Server responded with error status
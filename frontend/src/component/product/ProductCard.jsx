@@ -22,6 +22,15 @@ const ProductCard = ({ product }) => {
     return `http://localhost:8080/images/${imageUrl}`;
   };
 
+  // Resized copies generated by the backend, keyed by pixel width
+  const getImageSrcSet = (imageVariants) => {
+    if (!imageVariants) return undefined;
+    const candidates = Object.entries(imageVariants).map(
+      ([width, url]) => `${getImageSrc(url)} ${width}w`
+    );
+    return candidates.length > 0 ? candidates.join(", ") : undefined;
+  };
+
   const getProductRating = (productId) => {
     const seed = parseInt(productId);
     const rating = 4.0 + (seed * 0.123456789) % 1.0;
@@ -57,9 +66,13 @@ const ProductCard = ({ product }) => {
         <div className="relative h-64 bg-gradient-to-br from-pink-50 to-purple-50 flex items-center justify-center overflow-hidden">
           <img
             src={getImageSrc(product.imageUrl)}
+            srcSet={getImageSrcSet(product.imageVariants)}
+            sizes="(min-width: 1024px) 25vw, (min-width: 640px) 50vw, 100vw"
+            loading="lazy"
             alt={product.name}
             className="max-w-full max-h-full object-contain transition-transform duration-500 group-hover:scale-105"
             onError={(e) => {
+              e.target.srcset = "";
               e.target.src =
                 "https://via.placeholder.com/300x300?text=Image+Not+Found";
             }}